@@ -0,0 +1,319 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 21:50 创建
+ */
+package org.antframework.common.util.id;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * id字符串编解码器（线程安全）
+ * <p>
+ * DECIMAL格式：周期数字 + 补零到sequenceDigits位的id（id超过sequenceDigits位时不截断），比如周期类型为HOUR、sequenceDigits为6时，
+ * 周期2017112223内的id 123被编码为"2017112223000123"。周期前缀每个周期只生成一次，之后直接复制字符，不会使用DateFormat。
+ * BASE32、BASE62格式：先按LongIdCodec编码为long型，再转换为定长的32进制（Crockford字母表，13位）、62进制（11位）字符串，
+ * 字母表按ASCII码有序，所以字符串的字典序与id的顺序一致。
+ */
+public final class IdCodec {
+    /**
+     * 格式
+     */
+    public enum Format {
+        /**
+         * 十进制：周期数字 + 补零的id
+         */
+        DECIMAL,
+        /**
+         * 32进制（13位）
+         */
+        BASE32,
+        /**
+         * 62进制（11位）
+         */
+        BASE62
+    }
+
+    // 32进制字母表（Crockford，不含I、L、O、U）
+    private static final char[] BASE32_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // 62进制字母表
+    private static final char[] BASE62_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    // 周期类型
+    private final PeriodType periodType;
+    // id数字的位数
+    private final int sequenceDigits;
+    // 格式
+    private final Format format;
+    // 周期数字的位数
+    private final int periodDigits;
+    // long型id编解码器（DECIMAL格式时为null）
+    private final LongIdCodec longIdCodec;
+    // 字母表（DECIMAL格式时为null）
+    private final char[] alphabet;
+    // 字符对应的数值（-1表示非法字符；DECIMAL格式时为null）
+    private final int[] alphabetIndexes;
+    // 定长字符串的长度（DECIMAL格式时为0）
+    private final int compactLength;
+    // 最近使用的周期前缀
+    private volatile PeriodPrefix periodPrefix;
+
+    /**
+     * 构造DECIMAL格式的id字符串编解码器
+     *
+     * @param periodType     周期类型
+     * @param sequenceDigits id数字的位数（不足时补零）
+     */
+    public IdCodec(PeriodType periodType, int sequenceDigits) {
+        this(periodType, sequenceDigits, Format.DECIMAL);
+    }
+
+    /**
+     * 构造id字符串编解码器
+     *
+     * @param periodType     周期类型
+     * @param sequenceDigits id数字的位数（DECIMAL格式时不足则补零；其他格式时为LongIdCodec的id数字位数）
+     * @param format         格式
+     */
+    public IdCodec(PeriodType periodType, int sequenceDigits, Format format) {
+        Objects.requireNonNull(periodType, "周期类型不能为null");
+        Objects.requireNonNull(format, "格式不能为null");
+        if (sequenceDigits <= 0 || sequenceDigits > 18) {
+            throw new IllegalArgumentException(String.format("id数字的位数[%d]必须在[1,18]范围内", sequenceDigits));
+        }
+        this.periodType = periodType;
+        this.sequenceDigits = sequenceDigits;
+        this.format = format;
+        periodDigits = LongIdCodec.getPeriodDigits(periodType);
+        switch (format) {
+            case DECIMAL:
+                longIdCodec = null;
+                alphabet = null;
+                alphabetIndexes = null;
+                compactLength = 0;
+                break;
+            case BASE32:
+            case BASE62:
+                longIdCodec = new LongIdCodec(periodType, sequenceDigits);
+                alphabet = format == Format.BASE32 ? BASE32_ALPHABET : BASE62_ALPHABET;
+                alphabetIndexes = new int[128];
+                Arrays.fill(alphabetIndexes, -1);
+                for (int i = 0; i < alphabet.length; i++) {
+                    alphabetIndexes[alphabet[i]] = i;
+                }
+                compactLength = format == Format.BASE32 ? 13 : 11;
+                break;
+            default:
+                throw new IllegalArgumentException("无法识别的格式：" + format);
+        }
+    }
+
+    /**
+     * 编码
+     *
+     * @param id id
+     * @return id字符串
+     */
+    public String format(Id id) {
+        return format(id.getPeriod(), id.getId());
+    }
+
+    /**
+     * 编码
+     *
+     * @param period 周期
+     * @param id     id
+     * @return id字符串
+     */
+    public String format(Period period, long id) {
+        if (format != Format.DECIMAL) {
+            return formatCompact(longIdCodec.encode(period, id));
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException(String.format("id[%d]不能小于0", id));
+        }
+        char[] prefix = getPrefix(period).chars;
+        int length = prefix.length + Math.max(sequenceDigits, countDigits(id));
+        char[] chars = new char[length];
+        System.arraycopy(prefix, 0, chars, 0, prefix.length);
+        for (int i = length - 1; i >= prefix.length; i--) {
+            chars[i] = (char) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 编码并追加到StringBuilder（比如拼接日志时可避免创建中间字符串）
+     *
+     * @param builder 被追加的StringBuilder
+     * @param period  周期
+     * @param id      id
+     * @return 传入的StringBuilder
+     */
+    public StringBuilder formatTo(StringBuilder builder, Period period, long id) {
+        if (format != Format.DECIMAL) {
+            return builder.append(formatCompact(longIdCodec.encode(period, id)));
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException(String.format("id[%d]不能小于0", id));
+        }
+        builder.append(getPrefix(period).chars);
+        for (int i = countDigits(id); i < sequenceDigits; i++) {
+            builder.append('0');
+        }
+        return builder.append(id);
+    }
+
+    /**
+     * 解码
+     *
+     * @param text id字符串
+     * @return id
+     */
+    public Id parse(CharSequence text) {
+        Objects.requireNonNull(text, "id字符串不能为null");
+        if (format != Format.DECIMAL) {
+            long longId = parseCompact(text);
+            long bound = longIdCodec.getSequenceBound();
+            return new Id(getPeriod(longId / bound, text), longId % bound);
+        }
+        int length = text.length();
+        if (length <= periodDigits) {
+            throw new IllegalArgumentException(String.format("id字符串[%s]的长度非法", text));
+        }
+        long periodNumber = parseDecimal(text, 0, periodDigits);
+        long id = parseDecimal(text, periodDigits, length);
+        return new Id(getPeriod(periodNumber, text), id);
+    }
+
+    /**
+     * 获取周期类型
+     */
+    public PeriodType getPeriodType() {
+        return periodType;
+    }
+
+    /**
+     * 获取id数字的位数
+     */
+    public int getSequenceDigits() {
+        return sequenceDigits;
+    }
+
+    /**
+     * 获取格式
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    // 将long型id编码为定长字符串
+    private String formatCompact(long longId) {
+        char[] chars = new char[compactLength];
+        int radix = alphabet.length;
+        for (int i = compactLength - 1; i >= 0; i--) {
+            chars[i] = alphabet[(int) (longId % radix)];
+            longId /= radix;
+        }
+        return new String(chars);
+    }
+
+    // 将定长字符串解码为long型id
+    private long parseCompact(CharSequence text) {
+        if (text.length() != compactLength) {
+            throw new IllegalArgumentException(String.format("id字符串[%s]的长度必须为%d", text, compactLength));
+        }
+        int radix = alphabet.length;
+        long longId = 0;
+        for (int i = 0; i < compactLength; i++) {
+            char c = text.charAt(i);
+            int value = c < alphabetIndexes.length ? alphabetIndexes[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException(String.format("id字符串[%s]含有非法字符[%c]", text, c));
+            }
+            if (longId > (Long.MAX_VALUE - value) / radix) {
+                throw new IllegalArgumentException(String.format("id字符串[%s]超过long类型最大值", text));
+            }
+            longId = longId * radix + value;
+        }
+        return longId;
+    }
+
+    // 解析十进制数字
+    private static long parseDecimal(CharSequence text, int start, int end) {
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException(String.format("id字符串[%s]含有非数字字符[%c]", text, c));
+            }
+            if (number > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw new IllegalArgumentException(String.format("id字符串[%s]超过long类型最大值", text));
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    // 计算数字的位数
+    private static int countDigits(long number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    // 获取周期前缀（周期与最近使用的周期相同时直接复用）
+    private PeriodPrefix getPrefix(Period period) {
+        if (period.getType() != periodType) {
+            throw new IllegalArgumentException(String.format("周期类型[%s]与编解码器的周期类型[%s]不一致", period.getType(), periodType));
+        }
+        PeriodPrefix prefix = periodPrefix;
+        if (prefix == null || prefix.period.getNumber() != period.getNumber()) {
+            prefix = new PeriodPrefix(period, periodDigits);
+            periodPrefix = prefix;
+        }
+        return prefix;
+    }
+
+    // 根据周期数字获取周期（周期与最近使用的周期相同时直接复用）
+    private Period getPeriod(long periodNumber, CharSequence text) {
+        PeriodPrefix prefix = periodPrefix;
+        if (prefix != null && prefix.period.getNumber() == periodNumber) {
+            return prefix.period;
+        }
+        Period period;
+        try {
+            period = Period.parse(periodType, periodNumber);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("id字符串[%s]的周期非法", text), e);
+        }
+        periodPrefix = new PeriodPrefix(period, periodDigits);
+        return period;
+    }
+
+    // 周期前缀
+    private static final class PeriodPrefix {
+        // 周期
+        final Period period;
+        // 前缀字符（补零到周期数字的位数）
+        final char[] chars;
+
+        PeriodPrefix(Period period, int periodDigits) {
+            this.period = period;
+            chars = new char[periodDigits];
+            long number = period.getNumber();
+            for (int i = periodDigits - 1; i >= 0; i--) {
+                chars[i] = (char) ('0' + number % 10);
+                number /= 10;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 10:12 创建
+ */
+package org.antframework.common.util.id;
+
+import lombok.Getter;
+import org.antframework.common.util.tostring.ToString;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * id区间（同一周期内连续的一段id，不会为区间内每个id创建对象）
+ */
+@Getter
+public final class IdRange implements Serializable {
+    // 周期
+    private final Period period;
+    // 开始id（包含）
+    private final long startId;
+    // id个数
+    private final int amount;
+
+    /**
+     * 构造id区间
+     *
+     * @param period  周期
+     * @param startId 开始id（包含）
+     * @param amount  id个数
+     */
+    public IdRange(Period period, long startId, int amount) {
+        Objects.requireNonNull(period, "id区间的周期不能为null");
+        if (amount < 0) {
+            throw new IllegalArgumentException("id区间的id个数不能小于0");
+        }
+        this.period = period;
+        this.startId = startId;
+        this.amount = amount;
+    }
+
+    /**
+     * 获取结束id（不包含）
+     */
+    public long getEndId() {
+        return startId + amount;
+    }
+
+    /**
+     * 获取区间内指定序号的id
+     *
+     * @param index 序号（从0开始）
+     * @return id
+     */
+    public long get(int index) {
+        if (index < 0 || index >= amount) {
+            throw new IndexOutOfBoundsException(String.format("序号[%d]超出id区间范围[0,%d)", index, amount));
+        }
+        return startId + index;
+    }
+
+    /**
+     * 获取区间内指定序号的id对象
+     *
+     * @param index 序号（从0开始）
+     * @return id对象
+     */
+    public Id getId(int index) {
+        return new Id(period, get(index));
+    }
+
+    /**
+     * 是否包含指定id
+     *
+     * @param id id
+     */
+    public boolean contains(Id id) {
+        return period.equals(id.getPeriod()) && id.getId() >= startId && id.getId() < getEndId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(period, startId, amount);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof IdRange)) {
+            return false;
+        }
+        IdRange other = (IdRange) obj;
+        return period.equals(other.period) && startId == other.startId && amount == other.amount;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.toString(this);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 11:05 创建
+ */
+package org.antframework.common.util.id;
+
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * long型id编解码器（线程安全）
+ * <p>
+ * 编码规则：周期数字 * 10^sequenceDigits + id。
+ * 比如：周期类型为HOUR、sequenceDigits为6时，周期2017112223内的id 123被编码为2017112223000123。
+ * 编码过程只进行整数运算，不会创建任何对象。
+ */
+@Getter
+public final class LongIdCodec {
+    // 周期数字加上id数字的最大位数（保证编码结果不会超过long类型最大值）
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * 获取周期数字的位数
+     *
+     * @param periodType 周期类型
+     * @return 周期数字的位数
+     */
+    public static int getPeriodDigits(PeriodType periodType) {
+        switch (periodType) {
+            case HOUR:
+                return 10;
+            case DAY:
+                return 8;
+            case MONTH:
+                return 6;
+            case YEAR:
+                return 4;
+            case NONE:
+                return 0;
+            default:
+                throw new IllegalArgumentException("无法识别的周期类型：" + periodType);
+        }
+    }
+
+    /**
+     * 获取id数字最多可以有多少位
+     *
+     * @param periodType 周期类型
+     * @return id数字的最大位数
+     */
+    public static int getMaxSequenceDigits(PeriodType periodType) {
+        return MAX_DIGITS - getPeriodDigits(periodType);
+    }
+
+    // 周期类型
+    private final PeriodType periodType;
+    // id数字的位数
+    private final int sequenceDigits;
+    // id上限（不包含，即10^sequenceDigits）
+    private final long sequenceBound;
+
+    /**
+     * 构造long型id编解码器
+     *
+     * @param periodType     周期类型
+     * @param sequenceDigits id数字的位数
+     */
+    public LongIdCodec(PeriodType periodType, int sequenceDigits) {
+        Objects.requireNonNull(periodType, "周期类型不能为null");
+        if (sequenceDigits <= 0 || sequenceDigits > getMaxSequenceDigits(periodType)) {
+            throw new IllegalArgumentException(String.format("周期类型为%s时，id数字的位数必须在[1,%d]范围内", periodType, getMaxSequenceDigits(periodType)));
+        }
+        this.periodType = periodType;
+        this.sequenceDigits = sequenceDigits;
+        long bound = 1;
+        for (int i = 0; i < sequenceDigits; i++) {
+            bound *= 10;
+        }
+        this.sequenceBound = bound;
+    }
+
+    /**
+     * 编码
+     *
+     * @param id id
+     * @return 编码后的long型id
+     */
+    public long encode(Id id) {
+        return encode(id.getPeriod(), id.getId());
+    }
+
+    /**
+     * 编码
+     *
+     * @param period 周期
+     * @param id     id
+     * @return 编码后的long型id
+     */
+    public long encode(Period period, long id) {
+        if (period.getType() != periodType) {
+            throw new IllegalArgumentException(String.format("周期类型[%s]与编解码器的周期类型[%s]不一致", period.getType(), periodType));
+        }
+        if (id < 0 || id >= sequenceBound) {
+            throw new IllegalArgumentException(String.format("id[%d]超过%d位数字，无法编码", id, sequenceDigits));
+        }
+        return period.getNumber() * sequenceBound + id;
+    }
+
+    /**
+     * 解码
+     *
+     * @param longId 编码后的long型id
+     * @return id
+     */
+    public Id decode(long longId) {
+        if (longId < 0) {
+            throw new IllegalArgumentException(String.format("long型id[%d]非法", longId));
+        }
+        return new Id(Period.parse(periodType, longId / sequenceBound), longId % sequenceBound);
+    }
+}
@@ -1,4 +1,4 @@
-/* 
+/*
  * 作者：钟勋 (e-mail:zhongxunking@163.com)
  */
 
@@ -8,141 +8,354 @@
  */
 package org.antframework.common.util.id;
 
-import lombok.Getter;
-import org.apache.commons.lang3.time.DateFormatUtils;
-import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Calendar;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * 周期
+ * 周期（不可变）
+ * <p>
+ * 周期表示为距离1970年的周期序号（比如周期类型为DAY时为1970-01-01之后的第几天）加上时区，比较和增加周期都只是整数运算。
+ * 通过静态方法获取的周期会缓存每种周期类型最近使用的实例，同一周期内反复获取时不会重复创建对象。
+ * 序列化形式与之前的版本保持一致（只包含周期类型和周期时间），反序列化时按系统默认时区重新计算周期。
  */
-@Getter
 public final class Period implements Comparable<Period>, Serializable {
+    // 与之前的版本（字段为type和date）默认计算出的serialVersionUID保持一致
+    private static final long serialVersionUID = -1299187303784428708L;
+    // 序列化的字段（与之前的版本保持一致）
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("type", PeriodType.class),
+            new ObjectStreamField("date", Date.class)};
+    // 开始年份
+    private static final int EPOCH_YEAR = 1970;
+    // 无周期
+    private static final Period NONE_PERIOD = new Period(PeriodType.NONE, null, 0);
+    // 每种周期类型最近使用的周期（下标：周期类型的ordinal）
+    private static final AtomicReferenceArray<Period> INTERNED = new AtomicReferenceArray<>(PeriodType.values().length);
+
     // 周期类型
     private final PeriodType type;
-    // 周期时间
-    private final Date date;
+    // 时区（周期类型为NONE时为null）
+    private final ZoneId zone;
+    // 周期序号（距离1970年的周期数；周期类型为NONE时为0）
+    private final long index;
+    // 周期开始时间毫秒数（周期类型为NONE时为0）
+    private final long startTime;
+    // 周期结束时间毫秒数（即下一个周期的开始时间；周期类型为NONE时为Long.MAX_VALUE）
+    private final long endTime;
+    // 周期数字（与toString()的数字相同，比如周期类型为HOUR时为yyyyMMddHH格式的数字；周期类型为NONE时为0）
+    private final long number;
+    // 反序列化出的周期（只在反序列化时使用）
+    private transient Period deserialized;
 
     /**
-     * 构造周期
+     * 构造周期（使用系统默认时区）
      *
      * @param type 周期类型
      * @param date 周期时间
      */
     public Period(PeriodType type, Date date) {
         Objects.requireNonNull(type, "周期类型不能为null");
+        if (type != PeriodType.NONE) {
+            Objects.requireNonNull(date, String.format("周期类型为%s，则周期时间不能为null", type));
+        }
+        this.type = type;
+        if (type == PeriodType.NONE) {
+            zone = null;
+            index = 0;
+        } else {
+            zone = ZoneId.systemDefault();
+            index = toIndex(type, LocalDateTime.ofInstant(date.toInstant(), zone));
+        }
+        LocalDateTime start = toStart(type, index);
+        startTime = start == null ? 0 : start.atZone(zone).toInstant().toEpochMilli();
+        endTime = start == null ? Long.MAX_VALUE : toStart(type, index + 1).atZone(zone).toInstant().toEpochMilli();
+        number = toNumber(type, start);
+    }
+
+    // 根据周期序号构造周期
+    private Period(PeriodType type, ZoneId zone, long index) {
         this.type = type;
-        this.date = parseDate(type, date);
+        this.zone = zone;
+        this.index = index;
+        LocalDateTime start = toStart(type, index);
+        startTime = start == null ? 0 : start.atZone(zone).toInstant().toEpochMilli();
+        endTime = start == null ? Long.MAX_VALUE : toStart(type, index + 1).atZone(zone).toInstant().toEpochMilli();
+        number = toNumber(type, start);
     }
 
     /**
-     * 周期增加
+     * 获取指定时间所在的周期（使用系统默认时区；时间在最近使用的周期内时直接返回该实例）
      *
-     * @param length 增加长度
-     * @return 增加后的周期
+     * @param type 周期类型
+     * @param time 时间毫秒数
+     * @return 周期
      */
-    public Period grow(int length) {
-        Date date;
+    public static Period of(PeriodType type, long time) {
+        Objects.requireNonNull(type, "周期类型不能为null");
+        if (type == PeriodType.NONE) {
+            return NONE_PERIOD;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        Period interned = INTERNED.get(type.ordinal());
+        if (interned != null && time >= interned.startTime && time < interned.endTime && interned.zone.equals(zone)) {
+            return interned;
+        }
+        return intern(type, zone, toIndex(type, LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zone)));
+    }
+
+    /**
+     * 根据周期数字解析出周期（使用系统默认时区）
+     *
+     * @param type   周期类型
+     * @param number 周期数字（比如周期类型为HOUR时为yyyyMMddHH格式的数字）
+     * @return 周期
+     */
+    public static Period parse(PeriodType type, long number) {
+        Objects.requireNonNull(type, "周期类型不能为null");
+        if (type == PeriodType.NONE) {
+            if (number != 0) {
+                throw new IllegalArgumentException("周期类型为NONE的周期数字只能为0");
+            }
+            return NONE_PERIOD;
+        }
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        long remain = number;
         switch (type) {
             case HOUR:
-                date = DateUtils.addHours(this.date, length);
-                break;
+                hour = (int) (remain % 100);
+                remain /= 100;
             case DAY:
-                date = DateUtils.addDays(this.date, length);
-                break;
+                day = (int) (remain % 100);
+                remain /= 100;
             case MONTH:
-                date = DateUtils.addMonths(this.date, length);
-                break;
+                month = (int) (remain % 100);
+                remain /= 100;
             case YEAR:
-                date = DateUtils.addYears(this.date, length);
-                break;
-            case NONE:
-                if (length != 0) {
-                    throw new IllegalArgumentException("周期类型为NONE的周期不能进行增加");
-                }
-                date = null;
                 break;
             default:
                 throw new IllegalArgumentException("无法识别的周期类型：" + type);
         }
+        if (remain <= 0 || remain > 9999) {
+            throw new IllegalArgumentException(String.format("周期数字[%d]非法", number));
+        }
+        LocalDateTime start;
+        try {
+            start = LocalDateTime.of((int) remain, month, day, hour, 0);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(String.format("周期数字[%d]非法", number), e);
+        }
+        return intern(type, ZoneId.systemDefault(), toIndex(type, start));
+    }
 
-        return new Period(type, date);
+    /**
+     * 获取周期类型
+     */
+    public PeriodType getType() {
+        return type;
     }
 
+    /**
+     * 获取周期时间（即周期的开始时间；周期类型为NONE时返回null）
+     */
+    public Date getDate() {
+        return type == PeriodType.NONE ? null : new Date(startTime);
+    }
+
+    /**
+     * 获取周期的开始时间毫秒数（周期类型为NONE时返回0）
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 获取周期的结束时间毫秒数（即下一个周期的开始时间；周期类型为NONE时返回Long.MAX_VALUE）
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * 获取周期数字（比如周期类型为HOUR时为yyyyMMddHH格式的数字；周期类型为NONE时为0）
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * 获取周期序号（距离1970年的周期数，比如周期类型为DAY时为1970-01-01之后的第几天；周期类型为NONE时为0）
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * 周期增加
+     *
+     * @param length 增加长度
+     * @return 增加后的周期
+     */
+    public Period grow(int length) {
+        if (type == PeriodType.NONE) {
+            if (length != 0) {
+                throw new IllegalArgumentException("周期类型为NONE的周期不能进行增加");
+            }
+            return this;
+        }
+        if (length == 0) {
+            return this;
+        }
+        return intern(type, zone, index + length);
+    }
+
+    /**
+     * 比较周期（同一时区时比较周期序号；不同时区（比如系统默认时区发生了变化）时比较开始时间，开始时间相同时返回0）
+     */
     @Override
     public int compareTo(Period other) {
         if (type != other.getType()) {
             throw new IllegalArgumentException("不同类型的周期不能进行比较");
         }
-        if (date == other.getDate()) {
-            return 0;
+        if (!Objects.equals(zone, other.zone)) {
+            return Long.compare(startTime, other.startTime);
         }
-        return date.compareTo(other.getDate());
+        return Long.compare(index, other.index);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, date);
+        return (type.ordinal() * 31 + Long.hashCode(index)) * 31 + Objects.hashCode(zone);
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (!(obj instanceof Period)) {
             return false;
         }
         Period other = (Period) obj;
-        return type == other.getType() && compareTo(other) == 0;
+        return type == other.getType() && index == other.index && Objects.equals(zone, other.zone);
     }
 
     @Override
     public String toString() {
+        if (type == PeriodType.NONE) {
+            return "";
+        }
+        // 周期数字与yyyyMMddHH等格式的字符串相同，无需进行日期格式化
+        return StringUtils.leftPad(Long.toString(number), LongIdCodec.getPeriodDigits(type), '0');
+    }
+
+    // 序列化（只写入周期类型和周期时间）
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("type", type);
+        fields.put("date", getDate());
+        out.writeFields();
+    }
+
+    // 反序列化（根据周期类型和周期时间重新计算周期）
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        PeriodType type = (PeriodType) fields.get("type", null);
+        Date date = (Date) fields.get("date", null);
+        try {
+            deserialized = new Period(type, date);
+        } catch (RuntimeException e) {
+            InvalidObjectException exception = new InvalidObjectException("周期的序列化数据非法");
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    // 反序列化时替换为重新计算的周期
+    private Object readResolve() {
+        return deserialized;
+    }
+
+    // 获取周期（与该周期类型最近使用的周期相同时直接返回该实例）
+    private static Period intern(PeriodType type, ZoneId zone, long index) {
+        Period interned = INTERNED.get(type.ordinal());
+        if (interned != null && interned.index == index && interned.zone.equals(zone)) {
+            return interned;
+        }
+        Period period = new Period(type, zone, index);
+        INTERNED.set(type.ordinal(), period);
+        return period;
+    }
+
+    // 计算时间所在周期的序号
+    private static long toIndex(PeriodType type, LocalDateTime dateTime) {
         switch (type) {
             case HOUR:
-                return DateFormatUtils.format(date, "yyyyMMddHH");
+                return dateTime.toLocalDate().toEpochDay() * 24 + dateTime.getHour();
             case DAY:
-                return DateFormatUtils.format(date, "yyyyMMdd");
+                return dateTime.toLocalDate().toEpochDay();
             case MONTH:
-                return DateFormatUtils.format(date, "yyyyMM");
+                return (dateTime.getYear() - EPOCH_YEAR) * 12L + dateTime.getMonthValue() - 1;
             case YEAR:
-                return DateFormatUtils.format(date, "yyyy");
+                return dateTime.getYear() - EPOCH_YEAR;
+            default:
+                throw new IllegalArgumentException("无法识别的周期类型：" + type);
+        }
+    }
+
+    // 计算周期序号对应的开始时间（周期类型为NONE时返回null）
+    private static LocalDateTime toStart(PeriodType type, long index) {
+        switch (type) {
+            case HOUR:
+                return LocalDate.ofEpochDay(Math.floorDiv(index, 24)).atTime((int) Math.floorMod(index, 24), 0);
+            case DAY:
+                return LocalDate.ofEpochDay(index).atStartOfDay();
+            case MONTH:
+                return LocalDate.of((int) (EPOCH_YEAR + Math.floorDiv(index, 12)), (int) Math.floorMod(index, 12) + 1, 1).atStartOfDay();
+            case YEAR:
+                return LocalDate.of((int) (EPOCH_YEAR + index), 1, 1).atStartOfDay();
             case NONE:
-                return "";
+                return null;
             default:
                 throw new IllegalArgumentException("无法识别的周期类型：" + type);
         }
     }
 
-    // 解析出周期时间
-    private static Date parseDate(PeriodType type, Date date) {
+    // 计算周期数字
+    private static long toNumber(PeriodType type, LocalDateTime start) {
         if (type == PeriodType.NONE) {
-            return null;
-        } else {
-            Objects.requireNonNull(date, String.format("周期类型为%s，则周期时间不能为null", type));
+            return 0;
         }
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setLenient(false);
-        calendar.setTime(date);
-
+        long year = start.getYear();
+        long month = start.getMonthValue();
+        long day = start.getDayOfMonth();
+        long hour = start.getHour();
         switch (type) {
-            case YEAR:
-                calendar.set(Calendar.MONTH, Calendar.JANUARY);
-            case MONTH:
-                calendar.set(Calendar.DAY_OF_MONTH, 1);
-            case DAY:
-                calendar.set(Calendar.HOUR_OF_DAY, 0);
             case HOUR:
-                calendar.set(Calendar.MINUTE, 0);
-                calendar.set(Calendar.SECOND, 0);
-                calendar.set(Calendar.MILLISECOND, 0);
-                break;
+                return ((year * 100 + month) * 100 + day) * 100 + hour;
+            case DAY:
+                return (year * 100 + month) * 100 + day;
+            case MONTH:
+                return year * 100 + month;
+            case YEAR:
+                return year;
             default:
                 throw new IllegalArgumentException("无法识别的周期类型：" + type);
         }
-        return calendar.getTime();
     }
 }
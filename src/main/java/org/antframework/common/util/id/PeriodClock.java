@@ -0,0 +1,92 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 13:20 创建
+ */
+package org.antframework.common.util.id;
+
+import java.time.Clock;
+import java.util.Objects;
+
+/**
+ * 周期时钟（线程安全）
+ * <p>
+ * 缓存当前周期及其边界（毫秒数），获取当前周期时只需将当前时间与边界进行比较，只有跨越周期边界时才会创建新的周期。
+ * 时钟可以替换（比如单元测试中可以传入自己控制时间的Clock），只使用Clock的毫秒数，周期的划分与Period一致使用系统默认时区。
+ */
+public class PeriodClock {
+    // 周期类型
+    private final PeriodType periodType;
+    // 时钟
+    private final Clock clock;
+    // 当前周期窗口
+    private volatile Window window;
+
+    /**
+     * 构造周期时钟（使用系统时钟）
+     *
+     * @param periodType 周期类型
+     */
+    public PeriodClock(PeriodType periodType) {
+        this(periodType, Clock.systemDefaultZone());
+    }
+
+    /**
+     * 构造周期时钟
+     *
+     * @param periodType 周期类型
+     * @param clock      时钟
+     */
+    public PeriodClock(PeriodType periodType, Clock clock) {
+        Objects.requireNonNull(periodType, "周期类型不能为null");
+        Objects.requireNonNull(clock, "时钟不能为null");
+        this.periodType = periodType;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取周期类型
+     */
+    public PeriodType getPeriodType() {
+        return periodType;
+    }
+
+    /**
+     * 获取当前时间毫秒数
+     */
+    public long millis() {
+        return clock.millis();
+    }
+
+    /**
+     * 获取当前周期
+     */
+    public Period current() {
+        long now = clock.millis();
+        Window current = window;
+        if (current == null || now < current.startTime || now >= current.endTime) {
+            current = new Window(Period.of(periodType, now));
+            window = current;
+        }
+        return current.period;
+    }
+
+    // 周期窗口
+    private static final class Window {
+        // 周期
+        final Period period;
+        // 开始时间（包含）
+        final long startTime;
+        // 结束时间（不包含）
+        final long endTime;
+
+        Window(Period period) {
+            this.period = period;
+            startTime = period.getType() == PeriodType.NONE ? Long.MIN_VALUE : period.getStartTime();
+            endTime = period.getEndTime();
+        }
+    }
+}
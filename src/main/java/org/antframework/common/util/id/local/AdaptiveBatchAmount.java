@@ -0,0 +1,130 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 20:10 创建
+ */
+package org.antframework.common.util.id.local;
+
+/**
+ * 自适应批量id数量（线程安全，每个id生成器使用独立的对象，不能共享）
+ * <p>
+ * 根据滑动窗口内最近几次获取批量id时的时间和已发放的id个数估算id的消耗速率，使下一批id的数量刚好够用目标时长，
+ * 并限制在[最小数量,最大数量]范围内。速率按实际发放的id个数计算，所以预取（上一批id还未用完就获取下一批）、
+ * 跨周期时舍弃的剩余id、被maxId截断的批量id都不会使估算偏大。这样无论负载高低，持久化锚点的频率都大致保持为每目标时长一次：
+ * 负载高时批量变大以减少持久化次数，负载低时批量变小以减少重启时浪费的id。
+ */
+public class AdaptiveBatchAmount {
+    /**
+     * 默认滑动窗口大小（最近几次获取批量id）
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 8;
+
+    // 最小数量
+    private final int minAmount;
+    // 最大数量
+    private final int maxAmount;
+    // 目标的获取批量id间隔（毫秒）
+    private final long targetIntervalMillis;
+    // 获取批量id的时间（环形数组）
+    private final long[] times;
+    // 获取批量id时已发放的id个数（环形数组）
+    private final long[] issuedAmounts;
+    // 最旧样本的下标
+    private int head = 0;
+    // 样本个数
+    private int size = 0;
+
+    /**
+     * 构造自适应批量id数量
+     *
+     * @param minAmount            最小数量
+     * @param maxAmount            最大数量
+     * @param targetIntervalMillis 目标的获取批量id间隔（毫秒，比如：5000表示期望每5秒获取一次批量id）
+     */
+    public AdaptiveBatchAmount(int minAmount, int maxAmount, long targetIntervalMillis) {
+        this(minAmount, maxAmount, targetIntervalMillis, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * 构造自适应批量id数量
+     *
+     * @param minAmount            最小数量
+     * @param maxAmount            最大数量
+     * @param targetIntervalMillis 目标的获取批量id间隔（毫秒，比如：5000表示期望每5秒获取一次批量id）
+     * @param windowSize           滑动窗口大小（根据最近几次获取批量id估算消耗速率）
+     */
+    public AdaptiveBatchAmount(int minAmount, int maxAmount, long targetIntervalMillis, int windowSize) {
+        if (minAmount <= 0 || maxAmount < minAmount) {
+            throw new IllegalArgumentException(String.format("最小数量[%d]必须大于0且不能大于最大数量[%d]", minAmount, maxAmount));
+        }
+        if (targetIntervalMillis <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("目标间隔和滑动窗口大小必须大于0");
+        }
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.targetIntervalMillis = targetIntervalMillis;
+        times = new long[windowSize];
+        issuedAmounts = new long[windowSize];
+    }
+
+    /**
+     * 计算下一批id的数量（每次获取批量id时调用一次）
+     *
+     * @param now           当前时间毫秒数
+     * @param issuedAmount  id生成器至今已发放的id个数（只增不减）
+     * @param defaultAmount 还没有样本时使用的数量
+     * @return 下一批id的数量
+     */
+    public synchronized int next(long now, long issuedAmount, int defaultAmount) {
+        int amount;
+        if (size == 0) {
+            amount = defaultAmount;
+        } else {
+            // 窗口内最旧样本至今实际发放的id个数
+            long consumed = Math.max(issuedAmount - issuedAmounts[head], 0);
+            long elapsed = now - times[head];
+            if (elapsed <= 0) {
+                // 同一毫秒内：有发放说明负载很高，没有发放则无法估算
+                amount = consumed > 0 ? maxAmount : defaultAmount;
+            } else {
+                amount = (int) Math.min(consumed * targetIntervalMillis / elapsed, maxAmount);
+            }
+        }
+        amount = Math.max(Math.min(amount, maxAmount), minAmount);
+        // 记录样本
+        if (size == times.length) {
+            head = (head + 1) % times.length;
+            size--;
+        }
+        int tail = (head + size) % times.length;
+        times[tail] = now;
+        issuedAmounts[tail] = issuedAmount;
+        size++;
+
+        return amount;
+    }
+
+    /**
+     * 获取最小数量
+     */
+    public int getMinAmount() {
+        return minAmount;
+    }
+
+    /**
+     * 获取最大数量
+     */
+    public int getMaxAmount() {
+        return maxAmount;
+    }
+
+    /**
+     * 获取目标的获取批量id间隔（毫秒）
+     */
+    public long getTargetIntervalMillis() {
+        return targetIntervalMillis;
+    }
+}
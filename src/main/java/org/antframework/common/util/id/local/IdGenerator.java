@@ -8,24 +8,44 @@
  */
 package org.antframework.common.util.id.local;
 
-import org.antframework.common.util.file.MapFile;
+import lombok.extern.slf4j.Slf4j;
 import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.LongIdCodec;
 import org.antframework.common.util.id.Period;
+import org.antframework.common.util.id.PeriodClock;
 import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.store.Anchor;
+import org.antframework.common.util.id.store.AnchorStore;
+import org.antframework.common.util.id.store.MapFileAnchorStore;
 
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * id生成器
+ * id生成器（线程安全）
+ * <p>
+ * 从当前批量id中获取id是无锁的（通过CAS），只有当前批量id用完需要获取下一批id时才会加锁。
+ * 设置预取阈值后，当前批量id被使用到阈值时会在后台线程预取下一批id（双缓冲），切换批量id时不会在调用方线程进行文件io。
+ * id锚点的持久化由锚点存储器（AnchorStore）负责，使用共享的存储器（比如zookeeper）时多个实例可以共享同一个序列。
+ * 设置自适应批量id数量后，每批id的数量会根据id的消耗速率自动调整。
+ * 可通过getMetrics()获取发放数量、获取批量id的次数和耗时、剩余id数量、预计用完时间等指标，也可设置监听器对接监控系统。
  */
+@Slf4j
 public class IdGenerator {
-    // 缓存中周期的key
-    private static final String CACHE_PERIOD_KEY = "period";
-    // 缓存中id的key
-    private static final String CACHE_ID_KEY = "id";
+    // 预取执行器（所有id生成器共享，线程空闲时会自动回收）
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "IdGenerator-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
 
+    // 周期类型
+    private PeriodType periodType;
+    // 周期时钟
+    private PeriodClock periodClock;
     // 每次批量生成的id数量
     private int batchAmount;
     // 最大id
@@ -33,7 +53,31 @@ public class IdGenerator {
     // id锚
     private IdAnchor idAnchor;
     // 批量id
-    private Ids ids;
+    private volatile Ids ids;
+    // 预取阈值（null表示不预取）
+    private volatile Double prefetchThreshold;
+    // 预取的下一批id（受本对象锁保护）
+    private Ids nextIds;
+    // long型id编解码器（null表示无法将id编码为long型）
+    private volatile LongIdCodec longIdCodec;
+    // 自适应批量id数量（null表示每批id的数量固定为batchAmount）
+    private volatile AdaptiveBatchAmount adaptiveBatchAmount;
+    // 监听器（null表示不监听）
+    private volatile IdGeneratorListener listener;
+    // 已发放的id个数（只在发放id处计数：从批量id中获取、直接从id锚占用）
+    private final LongAdder issuedAmount = new LongAdder();
+    // 获取批量id的次数
+    private final AtomicLong refillAmount = new AtomicLong(0);
+    // 获取批量id的总耗时（纳秒）
+    private final AtomicLong refillNanos = new AtomicLong(0);
+    // 调用方线程阻塞的次数
+    private final AtomicLong blockedAmount = new AtomicLong(0);
+    // 调用方线程阻塞的总时长（纳秒）
+    private final AtomicLong blockedNanos = new AtomicLong(0);
+    // 最近一次获取批量id时的速率样本
+    private volatile RateSample lastSample;
+    // 倒数第二次获取批量id时的速率样本
+    private volatile RateSample prevSample;
 
     /**
      * 构造id生成器
@@ -44,66 +88,358 @@ public class IdGenerator {
      * @param cacheFilePath 缓存文件路径（null表示不使用缓存文件）
      */
     public IdGenerator(PeriodType periodType, int batchAmount, Long maxId, String cacheFilePath) {
-        if (periodType == null || batchAmount <= 0 || (maxId != null && maxId <= 0)) {
+        this(periodType == null ? null : new PeriodClock(periodType), batchAmount, maxId, cacheFilePath);
+    }
+
+    /**
+     * 构造id生成器
+     *
+     * @param periodClock   周期时钟（可传入自定义时钟的周期时钟以控制时间）
+     * @param batchAmount   每次批量生成的id数量
+     * @param maxId         最大id（不包含。null表示不限制）
+     * @param cacheFilePath 缓存文件路径（null表示不使用缓存文件）
+     */
+    public IdGenerator(PeriodClock periodClock, int batchAmount, Long maxId, String cacheFilePath) {
+        this(periodClock, batchAmount, maxId, cacheFilePath == null ? null : new MapFileAnchorStore(cacheFilePath), "");
+    }
+
+    /**
+     * 构造id生成器
+     *
+     * @param periodType  周期类型
+     * @param batchAmount 每次批量生成的id数量
+     * @param maxId       最大id（不包含。null表示不限制）
+     * @param anchorStore 锚点存储器（null表示不持久化锚点）
+     * @param name        序列名称
+     */
+    public IdGenerator(PeriodType periodType, int batchAmount, Long maxId, AnchorStore anchorStore, String name) {
+        this(periodType == null ? null : new PeriodClock(periodType), batchAmount, maxId, anchorStore, name);
+    }
+
+    /**
+     * 构造id生成器
+     *
+     * @param periodClock 周期时钟（可传入自定义时钟的周期时钟以控制时间）
+     * @param batchAmount 每次批量生成的id数量
+     * @param maxId       最大id（不包含。null表示不限制）
+     * @param anchorStore 锚点存储器（null表示不持久化锚点）
+     * @param name        序列名称
+     */
+    public IdGenerator(PeriodClock periodClock, int batchAmount, Long maxId, AnchorStore anchorStore, String name) {
+        if (periodClock == null || batchAmount <= 0 || (maxId != null && maxId <= 0) || name == null) {
             throw new IllegalArgumentException("创建id生成器的参数非法");
         }
+        this.periodType = periodClock.getPeriodType();
+        this.periodClock = periodClock;
         this.batchAmount = batchAmount;
         this.maxId = maxId;
+        longIdCodec = initLongIdCodec();
         // 初始化id锚
-        MapFile cacheFile = cacheFilePath == null ? null : new MapFile(cacheFilePath);
-        idAnchor = initIdAnchor(periodType, cacheFile);
+        idAnchor = new IdAnchor(anchorStore, name);
         // 获取批量id
-        ids = idAnchor.next();
+        ids = fetchIds();
     }
 
     /**
      * 获取id
      */
-    public synchronized Id acquire() {
+    public Id acquire() {
         Id id = ids.getId();
-        while (id == null) {
-            ids = idAnchor.next();
+        if (id == null) {
+            id = acquireInLock();
+        }
+        return id;
+    }
+
+    /**
+     * 获取long型id（由long型id编解码器编码，可通过getLongIdCodec().decode()解码）
+     * <p>
+     * 从当前批量id中获取时不会创建任何对象（包括Id、Date、Calendar、String）。
+     * 只有设置了maxId的id生成器才能获取long型id（否则id可能超过编解码器能容纳的位数）。
+     */
+    public long acquireLong() {
+        LongIdCodec codec = longIdCodec;
+        if (codec == null) {
+            throw new IllegalStateException("未设置long型id编解码器，无法获取long型id");
+        }
+        Ids current = ids;
+        long index = current.take();
+        if (index < 0) {
+            return codec.encode(acquireInLock());
+        }
+        return codec.encode(current.period, current.startId + index);
+    }
+
+    /**
+     * 批量获取id（一次性占用同一周期内连续的count个id）
+     * <p>
+     * count不超过batchAmount时从当前批量id中占用（当前批量id剩余不足时其剩余id会被舍弃）；
+     * count超过batchAmount或者新的批量id也容纳不下（比如自适应批量id数量小于count）时直接从id锚占用一段独立的id。
+     *
+     * @param count id个数（不能超过maxId）
+     * @return id区间
+     */
+    public IdRange acquire(int count) {
+        if (count <= 0 || (maxId != null && count > maxId)) {
+            throw new IllegalArgumentException(String.format("批量获取id的个数[%d]非法", count));
+        }
+        IdRange range = ids.getIds(count);
+        if (range == null) {
+            range = acquireInLock(count);
+        }
+        return range;
+    }
+
+    /**
+     * 设置预取阈值（从下一批id开始生效）
+     *
+     * @param prefetchThreshold 预取阈值（取值范围：(0,1)，表示当前批量id被使用的比例达到该值时异步预取下一批id；null表示不预取）
+     */
+    public void setPrefetchThreshold(Double prefetchThreshold) {
+        if (prefetchThreshold != null && (prefetchThreshold <= 0 || prefetchThreshold >= 1)) {
+            throw new IllegalArgumentException("预取阈值必须在(0,1)范围内");
+        }
+        this.prefetchThreshold = prefetchThreshold;
+    }
+
+    /**
+     * 设置自适应批量id数量（从下一批id开始生效）
+     *
+     * @param adaptiveBatchAmount 自适应批量id数量（null表示每批id的数量固定为batchAmount）
+     */
+    public void setAdaptiveBatchAmount(AdaptiveBatchAmount adaptiveBatchAmount) {
+        this.adaptiveBatchAmount = adaptiveBatchAmount;
+    }
+
+    /**
+     * 设置监听器
+     *
+     * @param listener 监听器（null表示不监听）
+     */
+    public void setListener(IdGeneratorListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 获取指标快照（剩余id个数和预计用完时间是从本实例的视角计算的，多个实例共享序列时仅供参考）
+     */
+    public IdGeneratorMetrics getMetrics() {
+        long now = periodClock.millis();
+        long issued = getIssuedAmount();
+        RateSample sample = prevSample != null ? prevSample : lastSample;
+        double rate = sample == null || now <= sample.time ? 0 : (issued - sample.issued) * 1000.0 / (now - sample.time);
+        Long remaining = null;
+        Long exhaustionTime = null;
+        if (maxId != null) {
+            Ids current = ids;
+            Period currentPeriod = periodClock.current();
+            long used = 0;
+            int result = current.period.compareTo(currentPeriod);
+            if (result == 0) {
+                used = current.startId + current.getIssuedAmount();
+            } else if (result > 0) {
+                // 当前周期的id已用完，已开始使用下一个周期的id
+                used = maxId;
+            }
+            remaining = Math.max(maxId - used, 0);
+            if (rate > 0) {
+                long time = now + (long) (remaining * 1000 / rate);
+                if (time < currentPeriod.getEndTime()) {
+                    exhaustionTime = time;
+                }
+            }
+        }
+        return new IdGeneratorMetrics(issued, refillAmount.get(), refillNanos.get(), blockedAmount.get(), blockedNanos.get(), remaining, rate, exhaustionTime);
+    }
+
+    /**
+     * 获取序列名称
+     */
+    public String getName() {
+        return idAnchor.name;
+    }
+
+    /**
+     * 获取周期时钟
+     */
+    public PeriodClock getPeriodClock() {
+        return periodClock;
+    }
+
+    /**
+     * 获取long型id编解码器
+     *
+     * @return null 如果无法将id编码为long型（maxId为null或者maxId的位数超过周期类型允许的最大位数）
+     */
+    public LongIdCodec getLongIdCodec() {
+        return longIdCodec;
+    }
+
+    /**
+     * 设置long型id编解码器（默认根据maxId计算id数字的位数；maxId为null时id不受限制，无法设置编解码器）
+     *
+     * @param longIdCodec long型id编解码器
+     */
+    public void setLongIdCodec(LongIdCodec longIdCodec) {
+        if (longIdCodec != null) {
+            if (longIdCodec.getPeriodType() != periodType) {
+                throw new IllegalArgumentException("long型id编解码器的周期类型与id生成器的周期类型不一致");
+            }
+            if (maxId == null) {
+                throw new IllegalArgumentException("未设置最大id的id生成器无法将id编码为long型");
+            }
+            if (maxId > longIdCodec.getSequenceBound()) {
+                throw new IllegalArgumentException(String.format("long型id编解码器的id数字位数无法容纳最大id[%d]", maxId));
+            }
+        }
+        this.longIdCodec = longIdCodec;
+    }
+
+    // 初始化long型id编解码器（maxId为null时id不受限制，无法保证编码不越界，所以不提供编解码器）
+    private LongIdCodec initLongIdCodec() {
+        if (maxId == null) {
+            return null;
+        }
+        int sequenceDigits = Long.toString(maxId - 1).length();
+        if (sequenceDigits > LongIdCodec.getMaxSequenceDigits(periodType)) {
+            return null;
+        }
+        return new LongIdCodec(periodType, sequenceDigits);
+    }
+
+    // 加锁获取id（当前批量id已用完或已过期时才会调用）
+    private Id acquireInLock() {
+        long startTime = System.nanoTime();
+        Id id;
+        synchronized (this) {
             id = ids.getId();
+            while (id == null) {
+                refill();
+                id = ids.getId();
+            }
         }
+        afterBlocked(System.nanoTime() - startTime);
         return id;
     }
 
-    // 初始化id锚
-    private IdAnchor initIdAnchor(PeriodType periodType, MapFile cacheFile) {
-        Period period = new Period(periodType, new Date());
-        long id = 0;
-        if (cacheFile != null) {
-            Map<String, String> cache = cacheFile.readAll();
-            String periodStr = cache.get(CACHE_PERIOD_KEY);
-            if (periodStr != null) {
-                period = new Period(periodType, new Date(Long.parseLong(periodStr)));
+    // 加锁批量获取id（当前批量id剩余不足或已过期时才会调用）
+    private IdRange acquireInLock(int count) {
+        long startTime = System.nanoTime();
+        IdRange range;
+        synchronized (this) {
+            range = ids.getIds(count);
+            if (range == null && count > batchAmount) {
+                range = reserve(count);
             }
-            String idStr = cache.get(CACHE_ID_KEY);
-            if (idStr != null) {
-                id = Long.parseLong(idStr);
-                if (maxId != null && id >= maxId) {
-                    period = period.grow(1);
-                    id = 0;
+            if (range == null) {
+                refill();
+                range = ids.getIds(count);
+                if (range == null) {
+                    // 新的批量id也容纳不下（自适应批量id数量小于count，或当前周期剩余id不足），直接从id锚占用
+                    range = reserve(count);
                 }
             }
         }
+        afterBlocked(System.nanoTime() - startTime);
+        return range;
+    }
+
+    // 直接从id锚占用一段独立的id（需持有本对象锁）
+    private IdRange reserve(int count) {
+        long startTime = System.nanoTime();
+        IdRange range = idAnchor.reserve(count, true);
+        issuedAmount.add(range.getAmount());
+        afterRefill(range.getPeriod(), range.getStartId(), range.getAmount(), System.nanoTime() - startTime);
+        return range;
+    }
+
+    // 替换当前批量id（需持有本对象锁）
+    private void refill() {
+        if (nextIds != null) {
+            ids = nextIds;
+            nextIds = null;
+        } else {
+            ids = fetchIds();
+        }
+    }
+
+    // 从id锚获取下一批id（需持有本对象锁）
+    private Ids fetchIds() {
+        long startTime = System.nanoTime();
+        Ids fetched = idAnchor.next();
+        afterRefill(fetched.period, fetched.startId, fetched.amount, System.nanoTime() - startTime);
+        return fetched;
+    }
+
+    // 获取批量id后记录指标
+    private void afterRefill(Period period, long startId, int amount, long latencyNanos) {
+        refillAmount.incrementAndGet();
+        refillNanos.addAndGet(latencyNanos);
+        prevSample = lastSample;
+        lastSample = new RateSample(periodClock.millis(), getIssuedAmount());
+        IdGeneratorListener current = listener;
+        if (current != null) {
+            current.onRefill(this, new IdRange(period, startId, amount), latencyNanos);
+        }
+    }
+
+    // 调用方线程阻塞后记录指标
+    private void afterBlocked(long nanos) {
+        blockedAmount.incrementAndGet();
+        blockedNanos.addAndGet(nanos);
+        IdGeneratorListener current = listener;
+        if (current != null) {
+            current.onBlocked(this, nanos);
+        }
+    }
+
+    // 周期内的id已达到maxId
+    private void afterExhausted(Period period) {
+        log.warn("id生成器[{}]在周期[{}]内的id已达到最大id[{}]，之后的id将从下一个周期开始分配", idAnchor.name, period, maxId);
+        IdGeneratorListener current = listener;
+        if (current != null) {
+            current.onExhausted(this, period);
+        }
+    }
+
+    // 获取已发放的id个数
+    private long getIssuedAmount() {
+        return issuedAmount.sum();
+    }
 
-        return new IdAnchor(period, id, cacheFile);
+    // 异步预取下一批id
+    private void prefetch() {
+        PREFETCH_EXECUTOR.execute(() -> {
+            try {
+                synchronized (this) {
+                    if (nextIds == null) {
+                        nextIds = fetchIds();
+                    }
+                }
+            } catch (Throwable e) {
+                // 预取失败不影响获取id，批量id用完时会在调用方线程重新获取
+                log.error("预取下一批id出错：", e);
+            }
+        });
     }
 
     // id锚
     private class IdAnchor {
+        // 锚点存储器（null表示不持久化）
+        private final AnchorStore anchorStore;
+        // 序列名称
+        private final String name;
+        // 最近一次从存储器读取或替换得到的锚点
+        private Anchor anchor;
         // 周期
         private Period period;
         // id（未被使用）
         private long id;
-        // 缓存文件
-        private MapFile cacheFile;
 
-        IdAnchor(Period period, long id, MapFile cacheFile) {
-            this.period = period;
-            this.id = id;
-            this.cacheFile = cacheFile;
+        IdAnchor(AnchorStore anchorStore, String name) {
+            this.anchorStore = anchorStore;
+            this.name = name;
+            load(anchorStore == null ? null : anchorStore.read(name));
         }
 
         /**
@@ -112,88 +448,198 @@ public class IdGenerator {
          * @return 批量id
          */
         Ids next() {
-            // 现代化
-            modernize();
-            // 创建批量id
-            long nextId = id + batchAmount;
-            if (nextId < id) {
-                throw new IllegalStateException("运算中超过long类型最大值，无法进行计算");
-            }
-            if (maxId != null && nextId > maxId) {
-                nextId = maxId;
+            AdaptiveBatchAmount adaptive = adaptiveBatchAmount;
+            int amount = adaptive == null ? batchAmount : adaptive.next(periodClock.millis(), getIssuedAmount(), batchAmount);
+            IdRange range = reserve(amount, false);
+            return new Ids(range.getPeriod(), range.getStartId(), range.getAmount());
+        }
+
+        /**
+         * 占用一段id
+         *
+         * @param amount 需占用的id个数
+         * @param whole  是否必须完整占用（true：当前周期剩余id不足时直接从下一个周期开始占用；false：当前周期剩余id不足时只占用剩余的id）
+         * @return 被占用的id区间
+         */
+        IdRange reserve(int amount, boolean whole) {
+            while (true) {
+                // 现代化
+                modernize();
+                Period modernPeriod = period;
+                if (whole && maxId != null && id + amount > maxId) {
+                    period = period.grow(1);
+                    id = 0;
+                }
+                // 创建id区间
+                long nextId = id + amount;
+                if (nextId < id) {
+                    throw new IllegalStateException("运算中超过long类型最大值，无法进行计算");
+                }
+                if (maxId != null && nextId > maxId) {
+                    nextId = maxId;
+                }
+                IdRange range = new IdRange(period, id, (int) (nextId - id));
+                id = nextId;
+                // 抛锚
+                if (drop()) {
+                    if (period.compareTo(range.getPeriod()) > 0) {
+                        afterExhausted(range.getPeriod());
+                    } else if (modernPeriod.compareTo(range.getPeriod()) < 0) {
+                        afterExhausted(modernPeriod);
+                    }
+                    return range;
+                }
+                // 锚点已被其他实例修改，重新加载锚点后再占用
+                load(anchorStore.read(name));
             }
-            Ids ids = new Ids(period, id, (int) (nextId - id));
-            id = nextId;
-            // 抛锚
-            drop();
+        }
 
-            return ids;
+        // 加载锚点
+        private void load(Anchor anchor) {
+            this.anchor = anchor;
+            period = periodClock.current();
+            id = 0;
+            if (anchor != null) {
+                if (periodType != PeriodType.NONE) {
+                    period = Period.of(periodType, anchor.getPeriodTime());
+                }
+                id = anchor.getId();
+                if (maxId != null && id >= maxId) {
+                    period = period.grow(1);
+                    id = 0;
+                }
+            }
         }
 
         // 现代化
         private void modernize() {
-            Period modernPeriod = new Period(period.getType(), new Date());
+            Period modernPeriod = periodClock.current();
             if (period.compareTo(modernPeriod) < 0) {
                 period = modernPeriod;
                 id = 0;
             }
         }
 
-        // 抛锚
-        private void drop() {
+        // 抛锚（返回是否成功；如果锚点已被其他实例修改，则返回false）
+        private boolean drop() {
             if (maxId != null) {
                 period = period.grow((int) (id / maxId));
                 id %= maxId;
             }
-            if (cacheFile != null) {
-                Map<String, String> cache = new HashMap<>();
-                if (period.getType() != PeriodType.NONE) {
-                    cache.put(CACHE_PERIOD_KEY, Long.toString(period.getDate().getTime()));
-                }
-                cache.put(CACHE_ID_KEY, Long.toString(id));
-                cacheFile.storeAll(cache);
+            if (anchorStore == null) {
+                return true;
+            }
+            long periodTime = period.getStartTime();
+            Anchor swapped = anchorStore.compareAndSwap(name, anchor, new Anchor(periodTime, id, 0));
+            if (swapped == null) {
+                return false;
             }
+            anchor = swapped;
+            return true;
         }
     }
 
-    // 批量id
-    private static class Ids {
+    // 批量id（线程安全）
+    private class Ids {
         // 周期
-        private Period period;
-        // 开始id（未被使用）
-        private long startId;
+        private final Period period;
+        // 开始id
+        private final long startId;
         // id个数
-        private int amount;
+        private final int amount;
+        // 触发预取的id序号（-1表示不预取）
+        private final long prefetchIndex;
+        // 过期时间（即下一个周期的开始时间）
+        private final long expireTime;
+        // 下一个未被使用的id的序号
+        private final AtomicLong nextIndex = new AtomicLong(0);
 
         Ids(Period period, long startId, int amount) {
             this.period = period;
             this.startId = startId;
             this.amount = amount;
+            Double threshold = prefetchThreshold;
+            prefetchIndex = threshold == null ? -1 : (long) (amount * threshold);
+            expireTime = period.getEndTime();
         }
 
         /**
          * 获取id（如果无可用id，则返回null）
          */
         Id getId() {
-            if (getAmount() <= 0) {
+            long index = take();
+            if (index < 0) {
                 return null;
             }
+            return new Id(period, startId + index);
+        }
+
+        /**
+         * 占用一个id的序号（如果无可用id，则返回-1）
+         */
+        long take() {
+            if (isExpired()) {
+                return -1;
+            }
+            // 通过CAS占用序号（用完后的序号自增不影响正确性，当前批量id很快会被替换）
+            long index = nextIndex.getAndIncrement();
+            if (index >= amount) {
+                return -1;
+            }
+            issuedAmount.increment();
+            if (index == prefetchIndex) {
+                // 每批id只会有一个线程占用到该序号，所以只会触发一次预取
+                prefetch();
+            }
+            return index;
+        }
 
-            Id id = new Id(period, startId);
+        /**
+         * 批量获取id（如果剩余id不足，则返回null）
+         *
+         * @param count id个数
+         */
+        IdRange getIds(int count) {
+            if (isExpired()) {
+                return null;
+            }
+            long index;
+            do {
+                index = nextIndex.get();
+                if (index + count > amount) {
+                    return null;
+                }
+            } while (!nextIndex.compareAndSet(index, index + count));
+            issuedAmount.add(count);
+            if (prefetchIndex >= index && prefetchIndex < index + count) {
+                prefetch();
+            }
+            return new IdRange(period, startId + index, count);
+        }
 
-            startId++;
-            amount--;
+        /**
+         * 获取已发放的id个数
+         */
+        long getIssuedAmount() {
+            return Math.min(nextIndex.get(), amount);
+        }
 
-            return id;
+        // 是否已过期
+        private boolean isExpired() {
+            return periodClock.millis() >= expireTime;
         }
+    }
 
-        // 获取id数量（如果id过期，则返回0）
-        private int getAmount() {
-            Period modernPeriod = new Period(period.getType(), new Date());
-            if (period.compareTo(modernPeriod) < 0) {
-                return 0;
-            }
-            return amount;
+    // 速率样本
+    private static final class RateSample {
+        // 时间毫秒数
+        final long time;
+        // 已发放的id个数
+        final long issued;
+
+        RateSample(long time, long issued) {
+            this.time = time;
+            this.issued = issued;
         }
     }
 }
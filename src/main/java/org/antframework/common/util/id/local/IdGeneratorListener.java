@@ -0,0 +1,45 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 22:50 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.Period;
+
+/**
+ * id生成器监听器（可对接任意监控系统；方法在获取批量id的线程中同步调用，实现应尽量轻量且不要抛出异常）
+ */
+public interface IdGeneratorListener {
+    /**
+     * 获取了一批id（包括预取和超过batchAmount的批量获取）
+     *
+     * @param idGenerator  id生成器
+     * @param range        获取到的id区间
+     * @param latencyNanos 获取耗时（纳秒，包括持久化锚点的耗时）
+     */
+    default void onRefill(IdGenerator idGenerator, IdRange range, long latencyNanos) {
+    }
+
+    /**
+     * 调用方线程因等待获取批量id而阻塞
+     *
+     * @param idGenerator  id生成器
+     * @param blockedNanos 阻塞时长（纳秒）
+     */
+    default void onBlocked(IdGenerator idGenerator, long blockedNanos) {
+    }
+
+    /**
+     * 周期内的id已达到maxId，之后的id将从下一个周期开始分配
+     *
+     * @param idGenerator id生成器
+     * @param period      id已用完的周期
+     */
+    default void onExhausted(IdGenerator idGenerator, Period period) {
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 23:00 创建
+ */
+package org.antframework.common.util.id.local;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.antframework.common.util.tostring.ToString;
+
+import java.io.Serializable;
+
+/**
+ * id生成器指标（某一时刻的快照）
+ */
+@AllArgsConstructor
+@Getter
+public final class IdGeneratorMetrics implements Serializable {
+    // 已发放的id个数
+    private final long issuedAmount;
+    // 获取批量id的次数
+    private final long refillAmount;
+    // 获取批量id的总耗时（纳秒）
+    private final long refillNanos;
+    // 调用方线程因等待获取批量id而阻塞的次数
+    private final long blockedAmount;
+    // 调用方线程因等待获取批量id而阻塞的总时长（纳秒）
+    private final long blockedNanos;
+    // 当前周期内剩余可发放的id个数（null表示maxId不限制）
+    private final Long remainingAmount;
+    // 最近的id消耗速率（个/秒）
+    private final double rate;
+    // 按最近的消耗速率预计当前周期id用完的时间毫秒数（null表示maxId不限制或预计当前周期内不会用完）
+    private final Long exhaustionTime;
+
+    @Override
+    public String toString() {
+        return ToString.toString(this);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 21:10 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.store.AnchorStore;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * id生成器注册中心（线程安全）
+ * <p>
+ * 管理多个命名的序列，每个序列有自己的周期类型、批量数量、最大id，所有序列共享同一个锚点存储器。
+ * 使用本地锚点存储器（比如MapFileAnchorStore）时，所有序列只需一个文件，不同序列并发获取批量id时会被合并为一次写入。
+ */
+public class IdGeneratorRegistry {
+    // 锚点存储器
+    private final AnchorStore anchorStore;
+    // 所有id生成器（key：序列名称）
+    private final ConcurrentMap<String, IdGenerator> idGenerators = new ConcurrentHashMap<>();
+
+    /**
+     * 构造id生成器注册中心
+     *
+     * @param anchorStore 锚点存储器（null表示不持久化锚点）
+     */
+    public IdGeneratorRegistry(AnchorStore anchorStore) {
+        this.anchorStore = anchorStore;
+    }
+
+    /**
+     * 注册序列
+     *
+     * @param name        序列名称
+     * @param periodType  周期类型
+     * @param batchAmount 每次批量生成的id数量
+     * @param maxId       最大id（不包含。null表示不限制）
+     * @return 序列的id生成器
+     * @throws IllegalStateException 如果序列已注册
+     */
+    public synchronized IdGenerator register(String name, PeriodType periodType, int batchAmount, Long maxId) {
+        Objects.requireNonNull(name, "序列名称不能为null");
+        if (idGenerators.containsKey(name)) {
+            throw new IllegalStateException(String.format("序列[%s]已注册", name));
+        }
+        IdGenerator idGenerator = new IdGenerator(periodType, batchAmount, maxId, anchorStore, name);
+        idGenerators.put(name, idGenerator);
+        return idGenerator;
+    }
+
+    /**
+     * 获取序列的id生成器
+     *
+     * @param name 序列名称
+     * @return null 如果序列未注册
+     */
+    public IdGenerator getIdGenerator(String name) {
+        return idGenerators.get(name);
+    }
+
+    /**
+     * 获取id
+     *
+     * @param name 序列名称
+     * @return id
+     * @throws IllegalArgumentException 如果序列未注册
+     */
+    public Id acquire(String name) {
+        IdGenerator idGenerator = idGenerators.get(name);
+        if (idGenerator == null) {
+            throw new IllegalArgumentException(String.format("序列[%s]未注册", name));
+        }
+        return idGenerator.acquire();
+    }
+
+    /**
+     * 获取所有已注册的序列名称
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(idGenerators.keySet());
+    }
+
+    /**
+     * 获取锚点存储器
+     */
+    public AnchorStore getAnchorStore() {
+        return anchorStore;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 14:30 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.LongIdCodec;
+import org.antframework.common.util.id.PeriodClock;
+
+import java.util.Objects;
+
+/**
+ * 条带化id生成器（线程安全）
+ * <p>
+ * 每个线程从共享的id生成器中一次性占用一小段id（条带），之后获取id只访问线程本地状态，线程之间不存在竞争，适用于多核机器。
+ * 生成的id在周期内唯一，但不同线程之间的id不保证有序；线程结束时其条带中未使用的id会被舍弃。
+ */
+public class StripedIdGenerator {
+    // 共享的id生成器
+    private final IdGenerator idGenerator;
+    // 每个条带的id数量
+    private final int stripeAmount;
+    // 线程本地的条带
+    private final ThreadLocal<Stripe> stripes = ThreadLocal.withInitial(Stripe::new);
+
+    /**
+     * 构造条带化id生成器
+     *
+     * @param idGenerator  共享的id生成器
+     * @param stripeAmount 每个条带的id数量（建议远小于idGenerator的batchAmount）
+     */
+    public StripedIdGenerator(IdGenerator idGenerator, int stripeAmount) {
+        Objects.requireNonNull(idGenerator, "id生成器不能为null");
+        if (stripeAmount <= 0) {
+            throw new IllegalArgumentException("每个条带的id数量必须大于0");
+        }
+        this.idGenerator = idGenerator;
+        this.stripeAmount = stripeAmount;
+    }
+
+    /**
+     * 获取id
+     */
+    public Id acquire() {
+        Stripe stripe = stripes.get();
+        long id = stripe.take();
+        return new Id(stripe.range.getPeriod(), id);
+    }
+
+    /**
+     * 获取long型id（由共享id生成器的long型id编解码器编码）
+     */
+    public long acquireLong() {
+        LongIdCodec codec = idGenerator.getLongIdCodec();
+        if (codec == null) {
+            throw new IllegalStateException("未设置long型id编解码器，无法获取long型id");
+        }
+        Stripe stripe = stripes.get();
+        long id = stripe.take();
+        return codec.encode(stripe.range.getPeriod(), id);
+    }
+
+    // 条带（只被所属线程访问）
+    private class Stripe {
+        // id区间
+        private IdRange range;
+        // 下一个未被使用的id的序号
+        private int nextIndex;
+        // 过期时间
+        private long expireTime;
+
+        // 占用一个id
+        long take() {
+            PeriodClock periodClock = idGenerator.getPeriodClock();
+            if (range == null || nextIndex >= range.getAmount() || periodClock.millis() >= expireTime) {
+                range = idGenerator.acquire(stripeAmount);
+                nextIndex = 0;
+                expireTime = range.getPeriod().getEndTime();
+            }
+            return range.getStartId() + nextIndex++;
+        }
+    }
+}
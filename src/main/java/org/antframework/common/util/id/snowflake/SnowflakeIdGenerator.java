@@ -0,0 +1,205 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 15:20 创建
+ */
+package org.antframework.common.util.id.snowflake;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.Period;
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.zookeeper.WorkerId;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花算法id生成器（线程安全，无锁）
+ * <p>
+ * id为64位long：1位符号位（始终为0）+ 41位时间戳（距离起始时间的毫秒数）+ 10位workerId + 12位毫秒内序列号。
+ * 不需要缓存文件，只要每个实例的workerId不同（可通过WorkerId获取），即可在多个实例之间生成全局唯一的id。
+ * 同一毫秒内序列号用完时会自旋等待到下一毫秒；时钟回拨不超过容忍范围时沿用上次的时间戳，超过时抛出异常。
+ */
+public class SnowflakeIdGenerator {
+    /**
+     * 默认起始时间（2018-01-01 00:00:00 UTC）
+     */
+    public static final long DEFAULT_EPOCH = 1514764800000L;
+    /**
+     * 默认容忍的时钟回拨毫秒数
+     */
+    public static final long DEFAULT_MAX_BACKWARD_MILLIS = 5;
+    /**
+     * workerId的位数
+     */
+    public static final int WORKER_ID_BITS = 10;
+    /**
+     * 序列号的位数
+     */
+    public static final int SEQUENCE_BITS = 12;
+    /**
+     * 最大workerId
+     */
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+    // 时间戳的位数
+    private static final int TIMESTAMP_BITS = 41;
+    // 序列号掩码
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    // 时间戳的偏移位数
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+    // 无周期
+    private static final Period NONE_PERIOD = new Period(PeriodType.NONE, null);
+
+    /**
+     * 创建雪花算法id生成器（workerId从zookeeper获取，本方法会连接zookeeper并释放）
+     *
+     * @param worker        worker（每个worker都不一样）
+     * @param zkUrls        zookeeper链接
+     * @param nodePath      worker在zookeeper上注册节点的父路径
+     * @param cacheFilePath workerId缓存文件路径（null表示不使用缓存文件）
+     * @return 雪花算法id生成器
+     */
+    public static SnowflakeIdGenerator create(String worker, String[] zkUrls, String nodePath, String cacheFilePath) {
+        return new SnowflakeIdGenerator(WorkerId.getId(worker, zkUrls, nodePath, cacheFilePath));
+    }
+
+    // workerId
+    private final long workerId;
+    // 起始时间
+    private final long epoch;
+    // 容忍的时钟回拨毫秒数
+    private final long maxBackwardMillis;
+    // 时钟
+    private final Clock clock;
+    // 状态（上次的时间戳 << SEQUENCE_BITS | 上次的序列号）
+    private final AtomicLong state = new AtomicLong(0);
+
+    /**
+     * 构造雪花算法id生成器
+     *
+     * @param workerId workerId（取值范围：[0,1023]）
+     */
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, DEFAULT_EPOCH, DEFAULT_MAX_BACKWARD_MILLIS, Clock.systemUTC());
+    }
+
+    /**
+     * 构造雪花算法id生成器
+     *
+     * @param workerId          workerId（取值范围：[0,1023]）
+     * @param epoch             起始时间（毫秒）
+     * @param maxBackwardMillis 容忍的时钟回拨毫秒数
+     * @param clock             时钟
+     */
+    public SnowflakeIdGenerator(int workerId, long epoch, long maxBackwardMillis, Clock clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException(String.format("workerId[%d]必须在[0,%d]范围内", workerId, MAX_WORKER_ID));
+        }
+        if (maxBackwardMillis < 0) {
+            throw new IllegalArgumentException("容忍的时钟回拨毫秒数不能小于0");
+        }
+        Objects.requireNonNull(clock, "时钟不能为null");
+        this.workerId = workerId;
+        this.epoch = epoch;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取id
+     */
+    public long acquireLong() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long timestamp = currentTimestamp();
+            long next;
+            if (timestamp > lastTimestamp) {
+                next = timestamp << SEQUENCE_BITS;
+            } else {
+                if (lastTimestamp - timestamp > maxBackwardMillis) {
+                    throw new IllegalStateException(String.format("时钟回拨了%d毫秒，超过容忍范围%d毫秒，拒绝生成id", lastTimestamp - timestamp, maxBackwardMillis));
+                }
+                if ((current & SEQUENCE_MASK) >= SEQUENCE_MASK) {
+                    // 序列号已用完，自旋等待到下一毫秒
+                    waitUntilAfter(lastTimestamp);
+                    continue;
+                }
+                // 同一毫秒内（或小幅时钟回拨时沿用上次的时间戳）序列号加1
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | (workerId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 获取id（周期类型为NONE）
+     */
+    public Id acquire() {
+        return new Id(NONE_PERIOD, acquireLong());
+    }
+
+    /**
+     * 获取id的生成时间
+     *
+     * @param id id
+     * @return 生成时间毫秒数
+     */
+    public long getTime(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + epoch;
+    }
+
+    /**
+     * 获取id中的workerId
+     *
+     * @param id id
+     * @return workerId
+     */
+    public int getWorkerId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_WORKER_ID);
+    }
+
+    /**
+     * 获取id中的序列号
+     *
+     * @param id id
+     * @return 序列号
+     */
+    public int getSequence(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    /**
+     * 获取id生成时间所在的周期
+     *
+     * @param id         id
+     * @param periodType 周期类型
+     * @return 周期
+     */
+    public Period getPeriod(long id, PeriodType periodType) {
+        return Period.of(periodType, getTime(id));
+    }
+
+    // 获取当前时间戳
+    private long currentTimestamp() {
+        long timestamp = clock.millis() - epoch;
+        if (timestamp < 0 || timestamp >= (1L << TIMESTAMP_BITS)) {
+            throw new IllegalStateException(String.format("当前时间超出雪花算法时间戳的表示范围（起始时间：%d）", epoch));
+        }
+        return timestamp;
+    }
+
+    // 自旋等待到指定时间戳之后
+    private void waitUntilAfter(long timestamp) {
+        while (currentTimestamp() <= timestamp) {
+            Thread.yield();
+        }
+    }
+}
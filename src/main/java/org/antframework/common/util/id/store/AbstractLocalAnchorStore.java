@@ -0,0 +1,97 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 20:50 创建
+ */
+package org.antframework.common.util.id.store;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 抽象本地锚点存储器（线程安全，只适用于单个实例独占存储）
+ * <p>
+ * 所有序列的锚点都保存在内存中，比较并替换时先更新内存再持久化所有序列的锚点（组提交）：
+ * 同一时刻只有一个线程在持久化，其他线程在此期间完成的替换会在下一次持久化时一起写入，
+ * 已被别的线程的持久化覆盖的替换无需再次持久化。所以多个序列并发获取批量id时只需很少的写入次数。
+ */
+public abstract class AbstractLocalAnchorStore implements AnchorStore {
+    // 内存锁（保护anchors和updatedSequence）
+    private final Object memoryLock = new Object();
+    // 持久化锁（同一时刻只有一个线程在持久化）
+    private final Object storeLock = new Object();
+    // 所有序列的锚点（key：序列名称）
+    private Map<String, Anchor> anchors;
+    // 内存中最新一次替换的序号
+    private long updatedSequence = 0;
+    // 已持久化的替换的序号
+    private volatile long storedSequence = 0;
+
+    @Override
+    public Anchor read(String name) {
+        synchronized (memoryLock) {
+            return getAnchors().get(name);
+        }
+    }
+
+    @Override
+    public Anchor compareAndSwap(String name, Anchor expect, Anchor update) {
+        Anchor anchor;
+        long sequence;
+        synchronized (memoryLock) {
+            if (!Objects.equals(getAnchors().get(name), expect)) {
+                return null;
+            }
+            anchor = new Anchor(update.getPeriodTime(), update.getId(), expect == null ? 0 : expect.getVersion() + 1);
+            anchors.put(name, anchor);
+            sequence = ++updatedSequence;
+        }
+        // 内存中的锚点领先于持久化的锚点是安全的（只会跳过部分id），但只有持久化成功后才能返回
+        flush(sequence);
+        return anchor;
+    }
+
+    /**
+     * 加载所有序列的锚点（第一次读取时调用一次）
+     *
+     * @return 所有序列的锚点（key：序列名称）
+     */
+    protected abstract Map<String, Anchor> loadAll();
+
+    /**
+     * 持久化所有序列的锚点（同一时刻只会有一个线程调用）
+     *
+     * @param anchors 所有序列的锚点（key：序列名称）
+     */
+    protected abstract void storeAll(Map<String, Anchor> anchors);
+
+    // 持久化直到指定序号的替换已被持久化
+    private void flush(long sequence) {
+        synchronized (storeLock) {
+            if (storedSequence >= sequence) {
+                // 已被其他线程的持久化覆盖
+                return;
+            }
+            Map<String, Anchor> snapshot;
+            long snapshotSequence;
+            synchronized (memoryLock) {
+                snapshot = new HashMap<>(anchors);
+                snapshotSequence = updatedSequence;
+            }
+            storeAll(snapshot);
+            storedSequence = snapshotSequence;
+        }
+    }
+
+    // 获取所有序列的锚点（需持有内存锁）
+    private Map<String, Anchor> getAnchors() {
+        if (anchors == null) {
+            anchors = new HashMap<>(loadAll());
+        }
+        return anchors;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 16:30 创建
+ */
+package org.antframework.common.util.id.store;
+
+import lombok.Getter;
+import org.antframework.common.util.tostring.ToString;
+
+import java.util.Objects;
+
+/**
+ * id锚点（不可变）
+ */
+@Getter
+public final class Anchor {
+    // 周期时间（周期的开始时间毫秒数，周期类型为NONE时为0）
+    private final long periodTime;
+    // id（未被使用）
+    private final long id;
+    // 版本（由锚点存储器维护，用于乐观锁）
+    private final long version;
+
+    /**
+     * 构造id锚点
+     *
+     * @param periodTime 周期时间（周期的开始时间毫秒数，周期类型为NONE时为0）
+     * @param id         id（未被使用）
+     * @param version    版本（由锚点存储器维护，新建锚点时可传入0）
+     */
+    public Anchor(long periodTime, long id, long version) {
+        this.periodTime = periodTime;
+        this.id = id;
+        this.version = version;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(periodTime, id, version);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Anchor)) {
+            return false;
+        }
+        Anchor other = (Anchor) obj;
+        return periodTime == other.periodTime && id == other.id && version == other.version;
+    }
+
+    @Override
+    public String toString() {
+        return ToString.toString(this);
+    }
+}
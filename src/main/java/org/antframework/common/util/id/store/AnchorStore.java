@@ -0,0 +1,35 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 16:32 创建
+ */
+package org.antframework.common.util.id.store;
+
+/**
+ * id锚点存储器（实现类必须线程安全）
+ * <p>
+ * 一个存储器可以存储多个序列的锚点，每个序列以名称区分。id生成器每获取一批id都会通过compareAndSwap占用该批id，
+ * 多个实例共享同一个序列时，只有替换成功的实例才能使用该批id，从而保证id不重复。
+ */
+public interface AnchorStore {
+    /**
+     * 读取锚点
+     *
+     * @param name 序列名称
+     * @return 锚点（不存在则返回null）
+     */
+    Anchor read(String name);
+
+    /**
+     * 比较并替换锚点
+     *
+     * @param name   序列名称
+     * @param expect 期望的当前锚点（必须是从本存储器读取或替换得到的锚点；null表示期望锚点不存在）
+     * @param update 新锚点（版本会被忽略，由存储器重新设置）
+     * @return 替换后的锚点（包含新版本；如果当前锚点与期望的不一致，则返回null）
+     */
+    Anchor compareAndSwap(String name, Anchor expect, Anchor update);
+}
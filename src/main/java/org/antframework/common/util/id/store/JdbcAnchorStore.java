@@ -0,0 +1,132 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 18:30 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * 基于数据库的锚点存储器（线程安全，适用于多个实例共享同一个序列）
+ * <p>
+ * 每个序列对应表中的一行，通过"UPDATE ... WHERE name = ? AND period_time = ? AND max_id = ?"进行比较并替换，
+ * id生成器会缓存上次替换得到的锚点，所以无冲突时每获取一批id只需一次数据库请求。表结构如下（表名可自定义）：
+ * <pre>
+ * CREATE TABLE id_anchor (
+ *     name        VARCHAR(128) NOT NULL PRIMARY KEY, -- 序列名称
+ *     period_time BIGINT       NOT NULL,             -- 周期时间（周期的开始时间毫秒数，周期类型为NONE时为0）
+ *     max_id      BIGINT       NOT NULL              -- 下一批id的开始id
+ * )
+ * </pre>
+ */
+public class JdbcAnchorStore implements AnchorStore {
+    // 违反完整性约束（比如主键冲突）的SQLState前缀
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
+    // 数据源
+    private final DataSource dataSource;
+    // 查询sql
+    private final String selectSql;
+    // 插入sql
+    private final String insertSql;
+    // 更新sql
+    private final String updateSql;
+
+    /**
+     * 构造基于数据库的锚点存储器
+     *
+     * @param dataSource 数据源
+     * @param tableName  表名
+     */
+    public JdbcAnchorStore(DataSource dataSource, String tableName) {
+        Objects.requireNonNull(dataSource, "数据源不能为null");
+        Objects.requireNonNull(tableName, "表名不能为null");
+        this.dataSource = dataSource;
+        selectSql = String.format("SELECT period_time, max_id FROM %s WHERE name = ?", tableName);
+        insertSql = String.format("INSERT INTO %s (name, period_time, max_id) VALUES (?, ?, ?)", tableName);
+        updateSql = String.format("UPDATE %s SET period_time = ?, max_id = ? WHERE name = ? AND period_time = ? AND max_id = ?", tableName);
+    }
+
+    @Override
+    public Anchor read(String name) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                statement.setString(1, name);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    return new Anchor(resultSet.getLong(1), resultSet.getLong(2), 0);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Anchor compareAndSwap(String name, Anchor expect, Anchor update) {
+        Anchor anchor = new Anchor(update.getPeriodTime(), update.getId(), 0);
+        return execute(connection -> {
+            if (expect == null) {
+                try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                    statement.setString(1, name);
+                    statement.setLong(2, anchor.getPeriodTime());
+                    statement.setLong(3, anchor.getId());
+                    statement.executeUpdate();
+                    return anchor;
+                } catch (SQLException e) {
+                    if (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION)) {
+                        // 其他实例已插入锚点
+                        return null;
+                    }
+                    throw e;
+                }
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                    statement.setLong(1, anchor.getPeriodTime());
+                    statement.setLong(2, anchor.getId());
+                    statement.setString(3, name);
+                    statement.setLong(4, expect.getPeriodTime());
+                    statement.setLong(5, expect.getId());
+                    return statement.executeUpdate() > 0 ? anchor : null;
+                }
+            }
+        });
+    }
+
+    // 获取数据库连接并执行（如果连接不是自动提交，则执行后提交）
+    private <T> T execute(ConnectionCallback<T> callback) {
+        try (Connection connection = dataSource.getConnection()) {
+            try {
+                T result = callback.doInConnection(connection);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    // 数据库连接回调
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+}
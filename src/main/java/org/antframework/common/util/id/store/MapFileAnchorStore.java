@@ -0,0 +1,73 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 16:40 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.file.MapFile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于map文件的锚点存储器（线程安全，只适用于单个实例独占缓存文件）
+ * <p>
+ * 序列名称为空字符串时，使用的key为"period"、"id"（与旧版本id生成器的缓存文件兼容）；否则使用的key为"名称.period"、"名称.id"。
+ * 多个序列可以共享同一个缓存文件，并发的替换会被合并为一次文件写入。
+ */
+public class MapFileAnchorStore extends AbstractLocalAnchorStore {
+    // 缓存中周期的key
+    private static final String CACHE_PERIOD_KEY = "period";
+    // 缓存中id的key
+    private static final String CACHE_ID_KEY = "id";
+
+    // 缓存文件
+    private final MapFile cacheFile;
+
+    /**
+     * 构造基于map文件的锚点存储器
+     *
+     * @param filePath 缓存文件路径
+     */
+    public MapFileAnchorStore(String filePath) {
+        cacheFile = new MapFile(filePath);
+    }
+
+    @Override
+    protected Map<String, Anchor> loadAll() {
+        Map<String, String> cache = cacheFile.readAll();
+        Map<String, Anchor> anchors = new HashMap<>();
+        cache.forEach((key, idStr) -> {
+            String name;
+            if (key.equals(CACHE_ID_KEY)) {
+                name = "";
+            } else if (key.endsWith('.' + CACHE_ID_KEY)) {
+                name = key.substring(0, key.length() - CACHE_ID_KEY.length() - 1);
+            } else {
+                return;
+            }
+            String periodStr = cache.get(buildKey(name, CACHE_PERIOD_KEY));
+            anchors.put(name, new Anchor(periodStr == null ? 0 : Long.parseLong(periodStr), Long.parseLong(idStr), 0));
+        });
+        return anchors;
+    }
+
+    @Override
+    protected void storeAll(Map<String, Anchor> anchors) {
+        Map<String, String> cache = new HashMap<>();
+        anchors.forEach((name, anchor) -> {
+            cache.put(buildKey(name, CACHE_PERIOD_KEY), Long.toString(anchor.getPeriodTime()));
+            cache.put(buildKey(name, CACHE_ID_KEY), Long.toString(anchor.getId()));
+        });
+        cacheFile.storeAll(cache);
+    }
+
+    // 构建缓存中的key
+    private static String buildKey(String name, String key) {
+        return name.isEmpty() ? key : name + '.' + key;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 19:20 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.file.FileUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的锚点存储器（线程安全，只适用于单个实例独占文件）
+ * <p>
+ * 多个序列可以共享同一个文件，并发的替换会被合并为一次写入。
+ * 文件由两个大小相同的槽组成，每次保存锚点时将所有序列的锚点写入较旧的那个槽并强制刷盘，两个槽交替写入。
+ * 每个槽的格式为：魔数(int) + 校验和(long) + 序号(long) + 数据长度(int) + 数据，校验和覆盖序号、数据长度和数据。
+ * 读取时选择校验通过且序号最大的槽，所以即使写入过程中断电导致当前槽损坏，也只会回退到上一次已成功保存的锚点，
+ * 而上一次保存之后的id在保存成功前不会被发放，因此id不会回退。
+ */
+public class MappedFileAnchorStore extends AbstractLocalAnchorStore {
+    /**
+     * 默认的槽大小（字节）
+     */
+    public static final int DEFAULT_SLOT_SIZE = 4096;
+
+    // 槽的魔数
+    private static final int MAGIC = 0x414E4348;
+    // 槽头部长度（魔数 + 校验和 + 序号 + 数据长度）
+    private static final int HEADER_LENGTH = 4 + 8 + 8 + 4;
+    // 校验和在槽中的偏移量
+    private static final int CHECKSUM_OFFSET = 4;
+    // 被校验数据在槽中的偏移量
+    private static final int CHECKED_OFFSET = CHECKSUM_OFFSET + 8;
+    // 编码
+    private static final Charset CHARSET = Charset.forName("utf-8");
+
+    // 文件路径
+    private final String filePath;
+    // 槽大小
+    private final int slotSize;
+    // 映射的文件内容
+    private final MappedByteBuffer buffer;
+    // 最新槽的序号
+    private long sequence;
+
+    /**
+     * 构造基于内存映射文件的锚点存储器
+     *
+     * @param filePath 文件路径
+     */
+    public MappedFileAnchorStore(String filePath) {
+        this(filePath, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * 构造基于内存映射文件的锚点存储器
+     *
+     * @param filePath 文件路径
+     * @param slotSize 槽大小（字节，决定了能保存的序列数量；已存在的文件必须使用相同的槽大小）
+     */
+    public MappedFileAnchorStore(String filePath, int slotSize) {
+        Objects.requireNonNull(filePath, "文件路径不能为null");
+        if (slotSize <= HEADER_LENGTH + 4) {
+            throw new IllegalArgumentException(String.format("槽大小[%d]必须大于%d", slotSize, HEADER_LENGTH + 4));
+        }
+        this.filePath = filePath;
+        this.slotSize = slotSize;
+        FileUtils.createFileIfAbsent(filePath);
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw"); FileChannel channel = file.getChannel()) {
+            long length = channel.size();
+            if (length != 0 && length != slotSize * 2L) {
+                throw new IllegalStateException(String.format("锚点文件[%s]的大小[%d]与槽大小[%d]不匹配", filePath, length, slotSize));
+            }
+            // 文件关闭后映射仍然有效
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, slotSize * 2L);
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("映射锚点文件[%s]出错：%s", filePath, e.getMessage()), e);
+        }
+    }
+
+    @Override
+    protected Map<String, Anchor> loadAll() {
+        int latest = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            if (isValid(slot) && (latest < 0 || buffer.getLong(slot * slotSize + CHECKED_OFFSET) > sequence)) {
+                latest = slot;
+                sequence = buffer.getLong(slot * slotSize + CHECKED_OFFSET);
+            }
+        }
+        if (latest < 0) {
+            sequence = 0;
+            return new HashMap<>();
+        }
+        return decode(slotView(latest, HEADER_LENGTH, buffer.getInt(latest * slotSize + CHECKED_OFFSET + 8)));
+    }
+
+    // 将锚点写入较旧的槽并刷盘
+    @Override
+    protected void storeAll(Map<String, Anchor> newAnchors) {
+        long newSequence = sequence + 1;
+        int slot = (int) (newSequence & 1);
+        ByteBuffer data = slotView(slot, HEADER_LENGTH, slotSize - HEADER_LENGTH);
+        try {
+            encode(newAnchors, data);
+        } catch (BufferOverflowException e) {
+            throw new IllegalStateException(String.format("锚点文件[%s]的槽大小[%d]不足以保存%d个序列的锚点", filePath, slotSize, newAnchors.size()));
+        }
+        int base = slot * slotSize;
+        buffer.putLong(base + CHECKED_OFFSET, newSequence);
+        buffer.putInt(base + CHECKED_OFFSET + 8, data.position());
+        buffer.putLong(base + CHECKSUM_OFFSET, checksum(slot, data.position()));
+        buffer.putInt(base, MAGIC);
+        buffer.force();
+        sequence = newSequence;
+    }
+
+    // 校验槽是否有效
+    private boolean isValid(int slot) {
+        int base = slot * slotSize;
+        if (buffer.getInt(base) != MAGIC) {
+            return false;
+        }
+        int length = buffer.getInt(base + CHECKED_OFFSET + 8);
+        if (length < 0 || length > slotSize - HEADER_LENGTH) {
+            return false;
+        }
+        return buffer.getLong(base + CHECKSUM_OFFSET) == checksum(slot, length);
+    }
+
+    // 计算槽的校验和
+    private long checksum(int slot, int length) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(slotView(slot, CHECKED_OFFSET, HEADER_LENGTH - CHECKED_OFFSET + length));
+        return crc32.getValue();
+    }
+
+    // 获取槽中指定区域的视图
+    private ByteBuffer slotView(int slot, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(slot * slotSize + offset);
+        view.limit(slot * slotSize + offset + length);
+        return view.slice();
+    }
+
+    // 编码锚点（格式：序列数量(int) + 多个[名称长度(short) + 名称 + 周期时间(long) + id(long)]）
+    private static void encode(Map<String, Anchor> anchors, ByteBuffer data) {
+        data.putInt(anchors.size());
+        anchors.forEach((name, anchor) -> {
+            byte[] nameBytes = name.getBytes(CHARSET);
+            if (nameBytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("序列名称[%s]过长", name));
+            }
+            data.putShort((short) nameBytes.length);
+            data.put(nameBytes);
+            data.putLong(anchor.getPeriodTime());
+            data.putLong(anchor.getId());
+        });
+    }
+
+    // 解码锚点
+    private static Map<String, Anchor> decode(ByteBuffer data) {
+        Map<String, Anchor> anchors = new HashMap<>();
+        int amount = data.getInt();
+        for (int i = 0; i < amount; i++) {
+            byte[] nameBytes = new byte[data.getShort()];
+            data.get(nameBytes);
+            anchors.put(new String(nameBytes, CHARSET), new Anchor(data.getLong(), data.getLong(), 0));
+        }
+        return anchors;
+    }
+}
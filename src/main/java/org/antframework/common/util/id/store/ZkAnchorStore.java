@@ -0,0 +1,91 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 17:05 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.zookeeper.ZkTemplate;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.nio.charset.Charset;
+
+/**
+ * 基于zookeeper的锚点存储器（线程安全，适用于多个实例共享同一个序列）
+ * <p>
+ * 每个序列对应一个节点（路径：basePath/序列名称），节点数据格式为"周期时间,id"，通过节点版本进行比较并替换。
+ * id生成器会缓存上次替换得到的锚点，所以无冲突时每获取一批id只需一次zookeeper请求。
+ * 所有zookeeper请求都通过ZkTemplate执行，受其链接保护（等待链接、熔断、快速失败）。
+ */
+public class ZkAnchorStore implements AnchorStore {
+    // 编码
+    private static final Charset CHARSET = Charset.forName("utf-8");
+    // 节点数据中周期时间和id的分隔符
+    private static final char DATA_SEPARATOR = ',';
+
+    // zookeeper操作类
+    private final ZkTemplate zkTemplate;
+    // 序列节点的父路径
+    private final String basePath;
+
+    /**
+     * 构造基于zookeeper的锚点存储器
+     *
+     * @param zkTemplate zookeeper操作类
+     * @param basePath   序列节点的父路径
+     */
+    public ZkAnchorStore(ZkTemplate zkTemplate, String basePath) {
+        this.zkTemplate = zkTemplate;
+        this.basePath = basePath;
+        zkTemplate.createNode(basePath, CreateMode.PERSISTENT);
+    }
+
+    @Override
+    public Anchor read(String name) {
+        String path = buildPath(name);
+        return zkTemplate.execute(zkClient -> {
+            try {
+                Stat stat = new Stat();
+                byte[] data = zkClient.getData().storingStatIn(stat).forPath(path);
+                String[] parts = StringUtils.split(new String(data, CHARSET), DATA_SEPARATOR);
+                return new Anchor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), stat.getVersion());
+            } catch (KeeperException.NoNodeException e) {
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Anchor compareAndSwap(String name, Anchor expect, Anchor update) {
+        String path = buildPath(name);
+        byte[] data = (Long.toString(update.getPeriodTime()) + DATA_SEPARATOR + update.getId()).getBytes(CHARSET);
+        return zkTemplate.execute(zkClient -> {
+            try {
+                if (expect == null) {
+                    zkClient.create().withMode(CreateMode.PERSISTENT).forPath(path, data);
+                    return new Anchor(update.getPeriodTime(), update.getId(), 0);
+                } else {
+                    Stat stat = zkClient.setData().withVersion((int) expect.getVersion()).forPath(path, data);
+                    return new Anchor(update.getPeriodTime(), update.getId(), stat.getVersion());
+                }
+            } catch (KeeperException.NodeExistsException | KeeperException.BadVersionException e) {
+                // 其他实例已修改锚点
+                return null;
+            }
+        });
+    }
+
+    // 构建序列节点路径
+    private String buildPath(String name) {
+        if (StringUtils.isEmpty(name)) {
+            throw new IllegalArgumentException("基于zookeeper的锚点存储器的序列名称不能为空");
+        }
+        return ZkTemplate.buildPath(basePath, name);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 14:30 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩的编解码器（线程安全）
+ * <p>
+ * 在被包装的编解码器之上压缩节点数据。压缩的节点数据格式：4个字节的魔数 + 1个字节的类型 + 4个字节的原始数据长度 + deflate压缩后的数据。
+ * 原始数据小于压缩阈值或者压缩后没有变小时不压缩，直接写入原始数据（原始数据恰好以魔数开头时写入：魔数 + 未压缩类型 + 原始数据）。
+ * 魔数的第一个字节0xFE不会出现在UTF-8文本中，所以不以魔数开头的数据（包括未使用本编解码器写入的旧数据）都按原始数据解码。
+ *
+ * @param <T> 值类型
+ */
+public class CompressedZkCodec<T> implements ZkCodec<T> {
+    /**
+     * 默认的压缩阈值（字节）
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+    // 魔数
+    private static final byte[] MAGIC = {(byte) 0xFE, 'Z', 'K', 'C'};
+    // 类型：未压缩
+    private static final byte TYPE_RAW = 0;
+    // 类型：deflate压缩
+    private static final byte TYPE_DEFLATE = 1;
+    // 头的长度（魔数 + 类型）
+    private static final int HEADER_LENGTH = MAGIC.length + 1;
+    // deflate压缩时头的长度（魔数 + 类型 + 原始数据长度）
+    private static final int DEFLATE_HEADER_LENGTH = HEADER_LENGTH + 4;
+
+    // 被包装的编解码器
+    private final ZkCodec<T> codec;
+    // 压缩阈值（原始数据小于该值时不压缩）
+    private final int threshold;
+
+    /**
+     * 构造压缩的编解码器（使用默认的压缩阈值）
+     *
+     * @param codec 被包装的编解码器
+     */
+    public CompressedZkCodec(ZkCodec<T> codec) {
+        this(codec, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 构造压缩的编解码器
+     *
+     * @param codec     被包装的编解码器
+     * @param threshold 压缩阈值（原始数据小于该值时不压缩）
+     */
+    public CompressedZkCodec(ZkCodec<T> codec, int threshold) {
+        Objects.requireNonNull(codec, "被包装的编解码器不能为null");
+        if (threshold < 0) {
+            throw new IllegalArgumentException(String.format("压缩阈值[%d]不能小于0", threshold));
+        }
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        byte[] raw = codec.encode(value);
+        if (raw == null) {
+            return null;
+        }
+        if (raw.length >= threshold) {
+            byte[] compressed = deflate(raw);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        if (!hasMagic(raw)) {
+            return raw;
+        }
+        byte[] data = new byte[raw.length + HEADER_LENGTH];
+        System.arraycopy(MAGIC, 0, data, 0, MAGIC.length);
+        data[MAGIC.length] = TYPE_RAW;
+        System.arraycopy(raw, 0, data, HEADER_LENGTH, raw.length);
+        return data;
+    }
+
+    @Override
+    public T decode(byte[] data) {
+        if (!hasMagic(data)) {
+            return codec.decode(data);
+        }
+        if (data.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException(String.format("节点数据长度[%d]非法", data.length));
+        }
+        byte[] raw;
+        switch (data[MAGIC.length]) {
+            case TYPE_RAW:
+                raw = new byte[data.length - HEADER_LENGTH];
+                System.arraycopy(data, HEADER_LENGTH, raw, 0, raw.length);
+                break;
+            case TYPE_DEFLATE:
+                raw = inflate(data);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("无法识别的节点数据类型[%d]", data[MAGIC.length]));
+        }
+        return codec.decode(raw);
+    }
+
+    // 数据是否以魔数开头
+    private static boolean hasMagic(byte[] data) {
+        if (data == null || data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 压缩（压缩后没有变小则返回null）
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            // 输出缓冲区比原始数据小，写满时说明压缩后没有变小
+            byte[] buffer = new byte[raw.length];
+            int length = DEFLATE_HEADER_LENGTH;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+            buffer[MAGIC.length] = TYPE_DEFLATE;
+            buffer[HEADER_LENGTH] = (byte) (raw.length >>> 24);
+            buffer[HEADER_LENGTH + 1] = (byte) (raw.length >>> 16);
+            buffer[HEADER_LENGTH + 2] = (byte) (raw.length >>> 8);
+            buffer[HEADER_LENGTH + 3] = (byte) raw.length;
+            byte[] data = new byte[length];
+            System.arraycopy(buffer, 0, data, 0, length);
+            return data;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // 解压
+    private static byte[] inflate(byte[] data) {
+        if (data.length < DEFLATE_HEADER_LENGTH) {
+            throw new IllegalArgumentException(String.format("压缩的节点数据长度[%d]非法", data.length));
+        }
+        int rawLength = ((data[HEADER_LENGTH] & 0xFF) << 24) | ((data[HEADER_LENGTH + 1] & 0xFF) << 16)
+                | ((data[HEADER_LENGTH + 2] & 0xFF) << 8) | (data[HEADER_LENGTH + 3] & 0xFF);
+        if (rawLength < 0) {
+            throw new IllegalArgumentException(String.format("压缩的节点数据的原始长度[%d]非法", rawLength));
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, DEFLATE_HEADER_LENGTH, data.length - DEFLATE_HEADER_LENGTH);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (!inflater.finished() && length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength || !inflater.finished()) {
+                throw new IllegalArgumentException("压缩的节点数据已损坏");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("压缩的节点数据已损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
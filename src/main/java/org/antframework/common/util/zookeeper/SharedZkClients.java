@@ -0,0 +1,89 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 10:50 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import org.apache.curator.framework.CuratorFramework;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 共享的zookeeper客户端（线程安全）
+ * <p>
+ * 同一个zookeeper地址只建立一个客户端（会话），不同的命名空间通过客户端的命名空间视图共享该会话；
+ * 客户端被引用计数，最后一个使用者释放时才关闭。
+ */
+final class SharedZkClients {
+    // 所有共享的客户端（key：zookeeper地址）
+    private static final Map<String, SharedClient> CLIENTS = new HashMap<>();
+
+    /**
+     * 获取共享的客户端（引用计数加1）
+     *
+     * @param connectString zookeeper地址
+     * @param clientFactory 客户端不存在时用于创建已启动的客户端
+     * @return 客户端
+     */
+    static synchronized CuratorFramework acquire(String connectString, Function<String, CuratorFramework> clientFactory) {
+        SharedClient sharedClient = CLIENTS.get(connectString);
+        if (sharedClient == null) {
+            sharedClient = new SharedClient(clientFactory.apply(connectString));
+            CLIENTS.put(connectString, sharedClient);
+        }
+        sharedClient.refCount++;
+        return sharedClient.zkClient;
+    }
+
+    /**
+     * 释放共享的客户端（引用计数减1，减到0时关闭客户端）
+     *
+     * @param connectString zookeeper地址
+     */
+    static void release(String connectString) {
+        CuratorFramework closingClient = null;
+        synchronized (SharedZkClients.class) {
+            SharedClient sharedClient = CLIENTS.get(connectString);
+            if (sharedClient == null) {
+                return;
+            }
+            sharedClient.refCount--;
+            if (sharedClient.refCount <= 0) {
+                CLIENTS.remove(connectString);
+                closingClient = sharedClient.zkClient;
+            }
+        }
+        if (closingClient != null) {
+            closingClient.close();
+        }
+    }
+
+    /**
+     * 获取客户端的引用计数
+     *
+     * @param connectString zookeeper地址
+     * @return 0 如果不存在该客户端
+     */
+    static synchronized int getRefCount(String connectString) {
+        SharedClient sharedClient = CLIENTS.get(connectString);
+        return sharedClient == null ? 0 : sharedClient.refCount;
+    }
+
+    // 共享的客户端
+    private static final class SharedClient {
+        // 客户端
+        final CuratorFramework zkClient;
+        // 引用计数
+        int refCount = 0;
+
+        SharedClient(CuratorFramework zkClient) {
+            this.zkClient = zkClient;
+        }
+    }
+}
@@ -18,11 +18,13 @@ import java.nio.charset.Charset;
 
 /**
  * workerId
+ * <p>
+ * 基于持久顺序节点，workerId不会被回收；实例频繁上下线时可使用租约方式的WorkerIdLease。
  */
 @Slf4j
 public final class WorkerId {
     /**
-     * 获取workerId（本方法不适合被频繁调用，因为每次调用都会连接zookeeper并释放）
+     * 获取workerId（使用共享的ZkTemplate，JVM内已有同一zookeeper地址的会话时不会再建立新的链接）
      *
      * @param worker        worker（每个worker都不一样）
      * @param zkUrls        zookeeper链接
@@ -57,7 +59,7 @@ public final class WorkerId {
 
     // 从zookeeper获取id
     private static String getIdFromZk(String worker, String[] zkUrls, String nodePath) throws InterruptedException {
-        ZkTemplate zkTemplate = ZkTemplate.create(zkUrls, null);
+        ZkTemplate zkTemplate = ZkTemplate.share(zkUrls, null);
         try {
             zkTemplate.createNode(nodePath, CreateMode.PERSISTENT);
             // 构建worker节点路径
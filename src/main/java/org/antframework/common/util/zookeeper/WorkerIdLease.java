@@ -0,0 +1,263 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 23:50 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.antframework.common.util.file.MapFile;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 租约方式的workerId（线程安全）
+ * <p>
+ * workerId从[0,poolSize)的池子中分配，每个被占用的workerId对应一个临时节点（路径：nodePath/workerId，数据为worker），
+ * 租约通过zookeeper会话的心跳维持，实例下线且会话过期后临时节点被自动删除，workerId即可被其他worker复用。
+ * 优先使用缓存文件中该worker上次的workerId，所以正常重启时只需一次zookeeper请求（创建临时节点）。
+ * 使用共享的ZkTemplate，不会为获取workerId单独建立zookeeper链接；zookeeper不可用时从缓存文件读取workerId。
+ * 会话丢失后租约失效（isLeased()返回false），重连时会重新占用原workerId，如果已被其他worker占用则租约仍失效。
+ * 所有zookeeper请求都通过ZkTemplate执行，受其链接保护（等待链接、熔断、快速失败）。
+ */
+@Slf4j
+public class WorkerIdLease {
+    // 编码
+    private static final Charset CHARSET = Charset.forName("utf-8");
+
+    // zookeeper操作类
+    private final ZkTemplate zkTemplate;
+    // workerId节点的父路径
+    private final String nodePath;
+    // worker
+    private final String worker;
+    // workerId池大小
+    private final int poolSize;
+    // 缓存文件（null表示不使用缓存文件）
+    private final MapFile cacheFile;
+    // workerId
+    private final int id;
+    // 是否持有租约
+    private volatile boolean leased;
+    // 是否已释放
+    private volatile boolean released = false;
+    // 链接状态监听器
+    private final ConnectionStateListener connectionStateListener = this::onStateChanged;
+
+    /**
+     * 构造租约方式的workerId（获取workerId并持有租约）
+     *
+     * @param zkTemplate    zookeeper操作类（共享的，释放租约时不会关闭）
+     * @param nodePath      workerId节点的父路径
+     * @param worker        worker（每个worker都不一样）
+     * @param poolSize      workerId池大小（workerId取值范围：[0,poolSize)）
+     * @param cacheFilePath 缓存文件路径（null表示不使用缓存文件）
+     */
+    public WorkerIdLease(ZkTemplate zkTemplate, String nodePath, String worker, int poolSize, String cacheFilePath) {
+        Objects.requireNonNull(zkTemplate, "zkTemplate不能为null");
+        Objects.requireNonNull(nodePath, "workerId节点的父路径不能为null");
+        Objects.requireNonNull(worker, "worker不能为null");
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException(String.format("workerId池大小[%d]必须大于0", poolSize));
+        }
+        this.zkTemplate = zkTemplate;
+        this.nodePath = nodePath;
+        this.worker = worker;
+        this.poolSize = poolSize;
+        cacheFile = cacheFilePath == null ? null : new MapFile(cacheFilePath);
+
+        Integer cachedId = readCache();
+        Integer leasedId = null;
+        try {
+            leasedId = lease(cachedId);
+        } catch (Throwable e) {
+            log.error("从zookeeper上租用workerId出错：{}", e.getMessage());
+            if (cachedId == null) {
+                ExceptionUtils.rethrow(e);
+            }
+            log.warn("使用缓存文件中的workerId[{}]（未持有租约）", cachedId);
+        }
+        id = leasedId == null ? cachedId : leasedId;
+        leased = leasedId != null;
+        if (leased && cacheFile != null) {
+            cacheFile.store(worker, Integer.toString(id));
+        }
+        zkTemplate.getZkClient().getConnectionStateListenable().addListener(connectionStateListener);
+    }
+
+    /**
+     * 获取workerId
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 获取worker
+     */
+    public String getWorker() {
+        return worker;
+    }
+
+    /**
+     * 是否持有租约（zookeeper不可用时使用的缓存的workerId、会话丢失后还未重新占用、或workerId被其他worker占用时返回false）
+     */
+    public boolean isLeased() {
+        return leased;
+    }
+
+    /**
+     * 释放租约（删除临时节点，workerId可被其他worker复用）
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        zkTemplate.getZkClient().getConnectionStateListenable().removeListener(connectionStateListener);
+        if (leased) {
+            leased = false;
+            try {
+                zkTemplate.execute(zkClient -> {
+                    try {
+                        // 只删除本会话的临时节点（同一worker重启后的新实例可能已接管该workerId）
+                        Stat stat = zkClient.checkExists().forPath(buildPath(id));
+                        if (stat != null && stat.getEphemeralOwner() == zkClient.getZookeeperClient().getZooKeeper().getSessionId()) {
+                            zkClient.delete().withVersion(stat.getVersion()).forPath(buildPath(id));
+                        }
+                    } catch (KeeperException.NoNodeException | KeeperException.BadVersionException e) {
+                        // 节点已被删除或已被其他实例占用
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("释放workerId[{}]的租约出错（会话过期后会自动释放）：{}", id, e.getMessage());
+            }
+        }
+    }
+
+    // 租用workerId（优先租用缓存的workerId）
+    private int lease(Integer cachedId) {
+        if (cachedId != null && tryLease(cachedId)) {
+            return cachedId;
+        }
+        Set<Integer> usedIds = new HashSet<>();
+        // 父节点不存在表示还没有任何worker租用过workerId
+        List<String> children = zkTemplate.getChildren(nodePath, ZkTemplate.ReadConsistency.SERVER);
+        if (children != null) {
+            for (String child : children) {
+                try {
+                    usedIds.add(Integer.parseInt(child));
+                } catch (NumberFormatException e) {
+                    // 忽略非workerId节点
+                }
+            }
+        }
+        for (int candidate = 0; candidate < poolSize; candidate++) {
+            if (!usedIds.contains(candidate) && tryLease(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException(String.format("workerId池[%s]已用完（池大小：%d）", nodePath, poolSize));
+    }
+
+    // 尝试租用指定的workerId（返回是否成功）
+    private boolean tryLease(int candidate) {
+        String path = buildPath(candidate);
+        byte[] workerData = worker.getBytes(CHARSET);
+        return zkTemplate.execute(zkClient -> {
+            try {
+                zkClient.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(path, workerData);
+                return true;
+            } catch (KeeperException.NodeExistsException e) {
+                Stat stat = new Stat();
+                byte[] data;
+                try {
+                    data = zkClient.getData().storingStatIn(stat).forPath(path);
+                } catch (KeeperException.NoNodeException ex) {
+                    // 节点刚被删除，下次再尝试
+                    return false;
+                }
+                if (!Arrays.equals(data, workerData)) {
+                    return false;
+                }
+                if (stat.getEphemeralOwner() == zkClient.getZookeeperClient().getZooKeeper().getSessionId()) {
+                    // 本会话已持有该workerId
+                    return true;
+                }
+                // 本worker上次的会话还未过期，接管该workerId
+                try {
+                    zkClient.delete().withVersion(stat.getVersion()).forPath(path);
+                    zkClient.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(path, workerData);
+                    return true;
+                } catch (KeeperException.NoNodeException | KeeperException.BadVersionException | KeeperException.NodeExistsException ex) {
+                    return false;
+                }
+            }
+        });
+    }
+
+    // 链接状态变化
+    private synchronized void onStateChanged(CuratorFramework client, ConnectionState newState) {
+        if (released) {
+            return;
+        }
+        if (newState == ConnectionState.LOST) {
+            // 会话丢失后临时节点可能已被删除，重连并重新占用前不再持有租约
+            leased = false;
+            log.warn("与zookeeper的会话已丢失，workerId[{}]的租约已失效", id);
+        } else if (newState == ConnectionState.RECONNECTED || (newState == ConnectionState.CONNECTED && !leased)) {
+            // 重新占用原workerId（会话未过期时节点仍存在，tryLease直接返回true）
+            try {
+                leased = tryLease(id);
+                if (leased) {
+                    if (cacheFile != null) {
+                        cacheFile.store(worker, Integer.toString(id));
+                    }
+                } else {
+                    log.error("workerId[{}]已被其他worker占用，worker[{}]的租约已失效", id, worker);
+                }
+            } catch (Throwable e) {
+                log.error("重新租用workerId[{}]出错：{}", id, e.getMessage());
+            }
+        }
+    }
+
+    // 读取缓存的workerId
+    private Integer readCache() {
+        if (cacheFile == null) {
+            return null;
+        }
+        try {
+            String cachedId = cacheFile.read(worker);
+            if (cachedId == null) {
+                return null;
+            }
+            int parsedId = Integer.parseInt(cachedId);
+            return parsedId >= 0 && parsedId < poolSize ? parsedId : null;
+        } catch (Throwable e) {
+            log.warn("读取缓存文件中的workerId出错：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    // 构建workerId节点路径
+    private String buildPath(int workerId) {
+        return ZkTemplate.buildPath(nodePath, Integer.toString(workerId));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 14:10 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * zookeeper节点数据编解码器（需线程安全）
+ * <p>
+ * 解码出的值会被ZkTemplate按节点版本缓存并被多个调用方共享，所以调用方不应修改解码出的值。
+ *
+ * @param <T> 值类型
+ */
+public interface ZkCodec<T> {
+    /**
+     * utf-8字符串编解码器
+     */
+    ZkCodec<String> UTF8 = of(
+            value -> value == null ? null : value.getBytes(Charset.forName("utf-8")),
+            data -> data == null ? null : new String(data, Charset.forName("utf-8")));
+
+    /**
+     * 编码
+     *
+     * @param value 值
+     * @return 节点数据
+     */
+    byte[] encode(T value);
+
+    /**
+     * 解码
+     *
+     * @param data 节点数据
+     * @return 值
+     */
+    T decode(byte[] data);
+
+    /**
+     * 创建编解码器
+     *
+     * @param encoder 编码器
+     * @param decoder 解码器
+     * @param <T>     值类型
+     * @return 编解码器
+     */
+    static <T> ZkCodec<T> of(Function<T, byte[]> encoder, Function<byte[], T> decoder) {
+        Objects.requireNonNull(encoder, "编码器不能为null");
+        Objects.requireNonNull(decoder, "解码器不能为null");
+        return new ZkCodec<T>() {
+            @Override
+            public byte[] encode(T value) {
+                return encoder.apply(value);
+            }
+
+            @Override
+            public T decode(byte[] data) {
+                return decoder.apply(data);
+            }
+        };
+    }
+}
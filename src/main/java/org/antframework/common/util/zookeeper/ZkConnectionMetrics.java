@@ -0,0 +1,36 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 10:20 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.antframework.common.util.tostring.ToString;
+
+import java.io.Serializable;
+
+/**
+ * zookeeper链接指标（某一时刻的快照）
+ */
+@AllArgsConstructor
+@Getter
+public final class ZkConnectionMetrics implements Serializable {
+    // 当前是否已链接
+    private final boolean connected;
+    // 调用方线程因等待链接zookeeper而阻塞的次数
+    private final long waitedAmount;
+    // 调用方线程因等待链接zookeeper而阻塞的总时长（纳秒）
+    private final long waitedNanos;
+    // 未链接时被快速失败拒绝的调用次数
+    private final long rejectedAmount;
+
+    @Override
+    public String toString() {
+        return ToString.toString(this);
+    }
+}
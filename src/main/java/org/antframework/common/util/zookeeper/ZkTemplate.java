@@ -12,18 +12,55 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.listen.ListenerContainer;
+import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.NodeCache;
 import org.apache.curator.framework.recipes.cache.NodeCacheListener;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.data.Stat;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
  * zookeeper操作类
+ * <p>
+ * xxxAsync方法在后台执行操作并返回CompletableFuture，多个请求通过同一个zookeeper会话流水线发送，一个线程即可并发发起大量请求；
+ * 它们不会等待链接zookeeper（未链接时请求由curator按重试策略重试），CompletableFuture在curator的事件线程中完成，
+ * 耗时的后续处理应使用thenXxxAsync等方法切换到其他线程执行；也不能在监听器中（zookeeper事件线程）等待CompletableFuture完成，否则会死锁。
+ * 同步方法执行前会校验是否已链接zookeeper：链接状态由监听器维护，已链接时没有额外开销；未链接时等待链接（或快速失败），
+ * 等待超时后熔断，直到重新链接前调用方都快速失败，避免zookeeper不可用时大量线程被阻塞。
+ * 通过listenTree、listenChildren监听子树后，该子树中节点的getData、getChildren直接从本地缓存读取，没有网络请求；
+ * 需要读取服务端最新数据时可使用ReadConsistency.SERVER。被listenNode监听的节点的getData同样从共享的NodeCache读取。
+ * 通过ZkCodec读写节点数据时（比如使用压缩的CompressedZkCodec），解码后的值按节点版本缓存，节点未被修改时不会重复解码。
  */
 public class ZkTemplate {
     // zookeeper地址分隔符
@@ -34,6 +71,16 @@ public class ZkTemplate {
     private static final int MAX_RETRIES = 10;
     // 路径中节点分隔符
     private static final char NODES_SEPARATOR = '/';
+    // 批量操作时同时在途的最大请求数量
+    private static final int MAX_PIPELINED_REQUESTS = 1000;
+    // zookeeper事件线程的类名（监听器和后台操作的回调都在该线程中执行）
+    private static final String ZK_EVENT_THREAD_CLASS = "org.apache.zookeeper.ClientCnxn$EventThread";
+    // 最多缓存的正则表达式数量
+    private static final int MAX_CACHED_PATTERNS = 256;
+    // 编译后的正则表达式缓存（key：正则表达式）
+    private static final ConcurrentMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    // 最多缓存的解码后的值数量
+    private static final int MAX_DECODED_VALUES = 1024;
 
     /**
      * 创建ZkTemplate
@@ -53,6 +100,36 @@ public class ZkTemplate {
         return new ZkTemplate(zkClient);
     }
 
+    /**
+     * 获取共享的ZkTemplate
+     * <p>
+     * 同一个zookeeper地址在JVM内只建立一个zookeeper会话，不同命名空间的ZkTemplate共享该会话；
+     * 返回的ZkTemplate被调用close()时只释放引用，最后一个引用被释放时才关闭zookeeper会话。
+     *
+     * @param zkUrls    zookeeper地址
+     * @param namespace 命名空间（null表示不使用命名空间，命名空间不能以"/"开头）
+     * @return zkTemplate（每次调用都返回新的实例，用完后需调用close()）
+     */
+    public static ZkTemplate share(String[] zkUrls, String namespace) {
+        String[] sortedZkUrls = zkUrls.clone();
+        Arrays.sort(sortedZkUrls);
+        String connectString = StringUtils.join(sortedZkUrls, ZK_URLS_SEPARATOR);
+        CuratorFramework sharedClient = SharedZkClients.acquire(connectString, key -> {
+            CuratorFramework zkClient = CuratorFrameworkFactory.builder()
+                    .connectString(key)
+                    .retryPolicy(new ExponentialBackoffRetry(BASE_SLEEP_TIME_MS, MAX_RETRIES))
+                    .build();
+            zkClient.start();
+            return zkClient;
+        });
+        AtomicBoolean released = new AtomicBoolean(false);
+        return new ZkTemplate(sharedClient.usingNamespace(namespace), () -> {
+            if (released.compareAndSet(false, true)) {
+                SharedZkClients.release(connectString);
+            }
+        });
+    }
+
     /**
      * 构建路径
      *
@@ -80,9 +157,69 @@ public class ZkTemplate {
 
     // zookeeper客户端
     private CuratorFramework zkClient;
+    // 关闭时执行的操作（null表示关闭zookeeper客户端）
+    private final Runnable closeAction;
+    // 链接状态监听器
+    private final ConnectionStateListener connectionStateListener = this::onStateChanged;
+    // 被监听的子树（key：子树根节点路径）
+    private final ConcurrentMap<String, WatchedTree> watchedTrees = new ConcurrentHashMap<>();
+    // 被监听的节点（key：节点路径）
+    private final ConcurrentMap<String, SharedNodeCache> nodeCaches = new ConcurrentHashMap<>();
+    // 解码后的值（key：节点路径）
+    private final ConcurrentMap<String, DecodedValue> decodedValues = new ConcurrentHashMap<>();
+    // 是否已链接（由链接状态监听器维护）
+    private volatile boolean connected;
+    // 未链接时是否快速失败（不等待链接）
+    private volatile boolean failFast = false;
+    // 未链接时等待链接的超时时间（毫秒）
+    private volatile long connectTimeout = BASE_SLEEP_TIME_MS * MAX_RETRIES;
+    // 是否已熔断（等待链接超时后直到重新链接前，调用方都快速失败）
+    private volatile boolean circuitOpen = false;
+    // 等待链接的次数
+    private final AtomicLong waitedAmount = new AtomicLong(0);
+    // 等待链接的总时长（纳秒）
+    private final AtomicLong waitedNanos = new AtomicLong(0);
+    // 被快速失败拒绝的次数
+    private final AtomicLong rejectedAmount = new AtomicLong(0);
 
     public ZkTemplate(CuratorFramework zkClient) {
+        this(zkClient, null);
+    }
+
+    // 构造ZkTemplate（closeAction：关闭时执行的操作，null表示关闭zookeeper客户端）
+    private ZkTemplate(CuratorFramework zkClient, Runnable closeAction) {
         this.zkClient = zkClient;
+        this.closeAction = closeAction;
+        zkClient.getConnectionStateListenable().addListener(connectionStateListener);
+        connected = zkClient.getZookeeperClient().isConnected();
+    }
+
+    /**
+     * 设置未链接时是否快速失败（默认为false：未链接时等待链接，等待超时后熔断，直到重新链接前调用方都快速失败）
+     *
+     * @param failFast true：未链接时不等待，直接抛出IllegalStateException
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * 设置未链接时等待链接的超时时间（默认为10秒）
+     *
+     * @param connectTimeout 超时时间（毫秒）
+     */
+    public void setConnectTimeout(long connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException(String.format("等待链接的超时时间[%d]不能小于0", connectTimeout));
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * 获取链接指标
+     */
+    public ZkConnectionMetrics getConnectionMetrics() {
+        return new ZkConnectionMetrics(connected, waitedAmount.get(), waitedNanos.get(), rejectedAmount.get());
     }
 
     /**
@@ -101,6 +238,8 @@ public class ZkTemplate {
 
     /**
      * 创建节点（路径中任何父节点如果不存在，则会创建CreateMode.PERSISTENT类型的该父节点；只有路径中最有一个节点才会使用mode参数）
+     * <p>
+     * 乐观地直接创建节点（父节点不存在时由curator创建），节点已存在时视为成功，所以通常只需一次zookeeper请求。
      *
      * @param path 节点路径
      * @param mode 节点类型
@@ -113,52 +252,177 @@ public class ZkTemplate {
             if (pathParts.length <= 0) {
                 return path;
             }
-            // 创建路径中的父节点
+            return zkClient.create().creatingParentsIfNeeded().withMode(mode).forPath(buildPath(pathParts));
+        } catch (KeeperException.NodeExistsException e) {
+            return path;
+        } catch (Exception e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    /**
+     * 批量创建节点（路径中任何父节点如果不存在，则会创建CreateMode.PERSISTENT类型的该父节点；已存在的节点视为创建成功）
+     * <p>
+     * 先流水线检查所有节点是否存在（请求通过同一个zookeeper会话流水线发送），再将不存在的节点在一个事务中创建；
+     * 如果检查后又有节点被其他客户端创建导致事务失败，则去掉该节点后重试事务。
+     * 所以不论路径有多少，通常只需两次zookeeper往返；在zookeeper事件线程中（比如在监听器中）调用时逐个同步创建。
+     *
+     * @param mode  节点类型（只用于每个路径中的最后一个节点，不能是顺序节点；为临时节点时，路径之间不能是父子关系）
+     * @param paths 节点路径
+     */
+    public void createNodes(CreateMode mode, String... paths) {
+        if (mode.isSequential()) {
+            throw new IllegalArgumentException("批量创建节点不支持顺序节点");
+        }
+        // 需要创建的节点（父节点在子节点之前）
+        Map<String, CreateMode> nodes = new LinkedHashMap<>();
+        // 作为其他节点父节点的节点
+        Set<String> parents = new HashSet<>();
+        for (String path : paths) {
+            String[] pathParts = StringUtils.split(path, NODES_SEPARATOR);
             StringBuilder pathBuilder = new StringBuilder();
-            for (int i = 0; i < pathParts.length - 1; i++) {
+            for (int i = 0; i < pathParts.length; i++) {
                 pathBuilder.append(NODES_SEPARATOR).append(pathParts[i]);
-                if (!checkExists(pathBuilder.toString())) {
-                    zkClient.create().withMode(CreateMode.PERSISTENT).forPath(pathBuilder.toString());
+                CreateMode nodeMode = i == pathParts.length - 1 ? mode : CreateMode.PERSISTENT;
+                CreateMode existingMode = nodes.get(pathBuilder.toString());
+                if (existingMode == null || existingMode == CreateMode.PERSISTENT) {
+                    nodes.put(pathBuilder.toString(), nodeMode);
+                }
+                if (i < pathParts.length - 1) {
+                    parents.add(pathBuilder.toString());
                 }
             }
-            // 创建路径中的最后一个节点
-            pathBuilder.append(NODES_SEPARATOR).append(pathParts[pathParts.length - 1]);
-            if (mode.isSequential() || !checkExists(pathBuilder.toString())) {
-                return zkClient.create().withMode(mode).forPath(pathBuilder.toString());
+        }
+        for (String parent : parents) {
+            if (nodes.get(parent).isEphemeral()) {
+                throw new IllegalArgumentException(String.format("节点[%s]是临时节点，不能作为其他节点的父节点", parent));
+            }
+        }
+        ensureConnected();
+        try {
+            if (isEventThread()) {
+                // 在zookeeper事件线程中不能等待后台操作的结果，只能逐个同步创建
+                for (Map.Entry<String, CreateMode> entry : nodes.entrySet()) {
+                    createNodeIfAbsent(entry.getKey(), entry.getValue());
+                }
+                return;
+            }
+            // 去掉已存在的节点
+            List<String> nodePaths = new ArrayList<>(nodes.keySet());
+            List<Boolean> exists = pipeline(nodePaths, this::checkExistsAsync);
+            for (int i = nodePaths.size() - 1; i >= 0; i--) {
+                if (exists.get(i)) {
+                    nodePaths.remove(i);
+                }
+            }
+            while (!nodePaths.isEmpty()) {
+                List<CuratorOp> ops = new ArrayList<>(nodePaths.size());
+                for (String nodePath : nodePaths) {
+                    ops.add(zkClient.transactionOp().create().withMode(nodes.get(nodePath)).forPath(nodePath));
+                }
+                try {
+                    zkClient.transaction().forOperations(ops);
+                    return;
+                } catch (KeeperException.NodeExistsException e) {
+                    // 检查后又被其他客户端创建的节点
+                    int existingIndex = findFailedOp(e);
+                    if (existingIndex < 0) {
+                        // 无法确定哪个节点已存在，逐个创建
+                        for (String nodePath : nodePaths) {
+                            createNodeIfAbsent(nodePath, nodes.get(nodePath));
+                        }
+                        return;
+                    }
+                    nodePaths.remove(existingIndex);
+                }
             }
-            return path;
         } catch (Exception e) {
-            return ExceptionUtils.rethrow(e);
+            ExceptionUtils.rethrow(e);
         }
     }
 
     /**
      * 删除节点（如果该节点存在子节点，则会递归删除子节点）
+     * <p>
+     * 先逐层并发获取整棵子树，再自底向上逐层并发删除，每层的请求通过同一个zookeeper会话流水线发送，
+     * 所以耗时取决于子树的深度而不是节点数量。
+     * 在zookeeper事件线程中（比如在NodeCache监听器中）调用时，由于后台操作的结果也由事件线程处理，所以只能逐个同步删除。
      *
      * @param path 节点路径
      */
     public void deleteNode(String path) {
         ensureConnected();
         try {
-            if (!checkExists(path)) {
+            if (isEventThread()) {
+                try {
+                    zkClient.delete().deletingChildrenIfNeeded().forPath(path);
+                } catch (KeeperException.NoNodeException e) {
+                    // 节点不存在
+                }
                 return;
             }
-            for (String child : getChildren(path)) {
-                deleteNode(buildPath(path, child));
+            // 逐层获取子树中的所有节点
+            List<List<String>> levels = new ArrayList<>();
+            List<String> level = Collections.singletonList(path);
+            while (!level.isEmpty()) {
+                levels.add(level);
+                List<List<String>> levelChildren = pipeline(level, this::getChildrenAsync);
+                List<String> nextLevel = new ArrayList<>();
+                for (int i = 0; i < level.size(); i++) {
+                    List<String> children = levelChildren.get(i);
+                    if (children != null) {
+                        for (String child : children) {
+                            nextLevel.add(buildPath(level.get(i), child));
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+            // 自底向上逐层删除
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                List<String> levelPaths = levels.get(i);
+                List<Integer> resultCodes = pipeline(levelPaths, nodePath -> background(
+                        callback -> zkClient.delete().inBackground(callback).forPath(nodePath),
+                        CuratorEvent::getResultCode));
+                for (int j = 0; j < levelPaths.size(); j++) {
+                    KeeperException.Code code = KeeperException.Code.get(resultCodes.get(j));
+                    if (code == KeeperException.Code.NOTEMPTY) {
+                        // 获取子树后又有新的子节点被创建
+                        deleteNode(levelPaths.get(j));
+                    } else if (code != KeeperException.Code.OK && code != KeeperException.Code.NONODE) {
+                        throw KeeperException.create(code, levelPaths.get(j));
+                    }
+                }
             }
-            zkClient.delete().forPath(path);
         } catch (Exception e) {
             ExceptionUtils.rethrow(e);
         }
     }
 
     /**
-     * 获取节点数据（节点不存在会抛异常）
+     * 获取节点数据（节点不存在会抛异常；节点在被监听的子树中时从本地缓存读取）
      *
      * @param path 节点路径
      * @return 节点数据
      */
     public byte[] getData(String path) {
+        return getData(path, ReadConsistency.CACHE_FIRST);
+    }
+
+    /**
+     * 获取节点数据（节点不存在会抛异常）
+     *
+     * @param path        节点路径
+     * @param consistency 读一致性
+     * @return 节点数据
+     */
+    public byte[] getData(String path, ReadConsistency consistency) {
+        if (consistency == ReadConsistency.CACHE_FIRST) {
+            ChildData data = getCachedData(buildPath(path));
+            if (data != null) {
+                return data.getData();
+            }
+        }
         ensureConnected();
         try {
             return zkClient.getData().forPath(path);
@@ -167,6 +431,56 @@ public class ZkTemplate {
         }
     }
 
+    /**
+     * 获取节点数据并解码（节点不存在会抛异常；节点在被监听的子树中或被监听时从本地缓存读取）
+     *
+     * @param path  节点路径
+     * @param codec 编解码器
+     * @param <T>   值类型
+     * @return 解码后的值
+     */
+    public <T> T getData(String path, ZkCodec<T> codec) {
+        return getData(path, codec, ReadConsistency.CACHE_FIRST);
+    }
+
+    /**
+     * 获取节点数据并解码（节点不存在会抛异常）
+     * <p>
+     * 解码后的值按节点版本缓存，节点未被修改时重复读取不会重复解压和解码（调用方不应修改返回的值）。
+     *
+     * @param path        节点路径
+     * @param codec       编解码器
+     * @param consistency 读一致性
+     * @param <T>         值类型
+     * @return 解码后的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getData(String path, ZkCodec<T> codec, ReadConsistency consistency) {
+        String nodePath = buildPath(path);
+        ChildData data = consistency == ReadConsistency.CACHE_FIRST ? getCachedData(nodePath) : null;
+        if (data == null) {
+            ensureConnected();
+            try {
+                Stat stat = new Stat();
+                byte[] bytes = zkClient.getData().storingStatIn(stat).forPath(path);
+                data = new ChildData(path, stat, bytes);
+            } catch (Exception e) {
+                return ExceptionUtils.rethrow(e);
+            }
+        }
+        long modifiedZxid = data.getStat().getMzxid();
+        DecodedValue decodedValue = decodedValues.get(nodePath);
+        if (decodedValue != null && decodedValue.codec == codec && decodedValue.modifiedZxid == modifiedZxid) {
+            return (T) decodedValue.value;
+        }
+        T value = codec.decode(data.getData());
+        if (decodedValues.size() >= MAX_DECODED_VALUES) {
+            decodedValues.clear();
+        }
+        decodedValues.put(nodePath, new DecodedValue(codec, modifiedZxid, value));
+        return value;
+    }
+
     /**
      * 给节点设置数据（节点不存在会抛异常）
      *
@@ -182,36 +496,173 @@ public class ZkTemplate {
         }
     }
 
+    /**
+     * 编码后给节点设置数据（节点不存在会抛异常）
+     *
+     * @param path  节点路径
+     * @param value 值
+     * @param codec 编解码器
+     * @param <T>   值类型
+     */
+    public <T> void setData(String path, T value, ZkCodec<T> codec) {
+        setData(path, codec.encode(value));
+    }
+
     /**
      * 监听节点
+     * <p>
+     * 同一个节点只会有一个共享的NodeCache（一个监听、一份数据），所有监听器由它分发事件；
+     * 节点被监听后，getData直接读取NodeCache中的当前数据，没有网络请求。
      *
      * @param path             节点路径
-     * @param initCallListener 初始化时是否调用监听器
+     * @param initCallListener 初始化时是否调用监听器（节点存在时在zookeeper事件线程中异步调用）
      * @param listeners        监听器
-     * @return 底层NodeCache
+     * @return 本次监听的NodeCache视图（读取共享的NodeCache；关闭时只删除本次添加的监听器，节点最后一个监听器被删除时关闭共享的NodeCache）
      */
     public NodeCache listenNode(String path, boolean initCallListener, NodeListener... listeners) {
-        ensureConnected();
+        String nodePath = buildPath(path);
+        NodeCacheView view = new NodeCacheView(nodePath);
         try {
-            NodeCache nodeCache = new NodeCache(zkClient, path);
-            for (NodeListener listener : listeners) {
-                listener.init(nodeCache);
-                nodeCache.getListenable().addListener(listener);
+            // 锁内只维护监听器，创建和启动共享的NodeCache（可能等待链接、同步加载数据）在锁外进行，不阻塞其他节点的监听和取消监听
+            SharedNodeCache sharedNodeCache;
+            boolean created;
+            synchronized (this) {
+                sharedNodeCache = nodeCaches.get(nodePath);
+                created = sharedNodeCache == null;
+                if (created) {
+                    sharedNodeCache = new SharedNodeCache(new NodeCache(zkClient, nodePath));
+                    nodeCaches.put(nodePath, sharedNodeCache);
+                }
+                for (NodeListener listener : listeners) {
+                    if (sharedNodeCache.listeners.add(listener)) {
+                        view.listeners.add(listener);
+                        listener.init(view);
+                        sharedNodeCache.nodeCache.getListenable().addListener(listener);
+                    }
+                }
             }
-            nodeCache.start(!initCallListener);
-            return nodeCache;
+            NodeCache nodeCache = sharedNodeCache.nodeCache;
+            if (created) {
+                try {
+                    ensureConnected();
+                    // 需要初始化时调用监听器则在后台加载初始数据（加载后由NodeCache异步调用监听器），否则同步加载
+                    nodeCache.start(!initCallListener);
+                    sharedNodeCache.started.complete(null);
+                } catch (Throwable e) {
+                    synchronized (this) {
+                        nodeCaches.remove(nodePath, sharedNodeCache);
+                    }
+                    closeQuietly(nodeCache);
+                    sharedNodeCache.started.completeExceptionally(e);
+                    throw e;
+                }
+            } else {
+                // 等待其他线程启动共享的NodeCache
+                try {
+                    sharedNodeCache.started.get();
+                } catch (ExecutionException e) {
+                    ExceptionUtils.rethrow(e.getCause());
+                }
+                if (initCallListener && nodeCache.getCurrentData() != null) {
+                    for (NodeListener listener : view.listeners) {
+                        // NodeCache已加载过数据，在zookeeper事件线程中异步调用监听器（与NodeCache的事件在同一线程中串行执行）
+                        zkClient.checkExists().inBackground((client, event) -> listener.nodeChanged()).forPath(nodePath);
+                    }
+                }
+            }
+            return view;
         } catch (Exception e) {
             return ExceptionUtils.rethrow(e);
         }
     }
 
     /**
-     * 获取子节点
+     * 删除节点的监听器（节点最后一个监听器被删除时关闭共享的NodeCache）
+     *
+     * @param path     节点路径
+     * @param listener 监听器
+     */
+    public void unlistenNode(String path, NodeListener listener) {
+        String nodePath = buildPath(path);
+        SharedNodeCache closed = null;
+        synchronized (this) {
+            SharedNodeCache sharedNodeCache = nodeCaches.get(nodePath);
+            if (sharedNodeCache == null || !sharedNodeCache.listeners.remove(listener)) {
+                return;
+            }
+            sharedNodeCache.nodeCache.getListenable().removeListener(listener);
+            if (sharedNodeCache.listeners.isEmpty()) {
+                nodeCaches.remove(nodePath);
+                closed = sharedNodeCache;
+            }
+        }
+        if (closed != null) {
+            closeQuietly(closed.nodeCache);
+        }
+    }
+
+    /**
+     * 监听子树（子树中节点的数据和子节点会被缓存在本地，由监听维护；getData、getChildren等读操作优先从本地缓存读取）
+     *
+     * @param path      子树根节点路径
+     * @param listeners 监听器
+     * @return 底层TreeCache
+     * @throws IllegalStateException 如果该子树已被监听
+     */
+    public TreeCache listenTree(String path, TreeCacheListener... listeners) {
+        return listenTree(path, Integer.MAX_VALUE, listeners);
+    }
+
+    /**
+     * 监听子节点（父节点及其子节点的数据会被缓存在本地，由监听维护；getData、getChildren等读操作优先从本地缓存读取）
+     *
+     * @param path      父节点路径
+     * @param listeners 监听器
+     * @return 底层TreeCache
+     * @throws IllegalStateException 如果该父节点已被监听
+     */
+    public TreeCache listenChildren(String path, TreeCacheListener... listeners) {
+        return listenTree(path, 1, listeners);
+    }
+
+    /**
+     * 取消监听子树（或子节点）
+     *
+     * @param path 子树根节点路径
+     */
+    public synchronized void unlistenTree(String path) {
+        WatchedTree tree = watchedTrees.remove(buildPath(path));
+        if (tree != null) {
+            tree.treeCache.close();
+        }
+    }
+
+    /**
+     * 获取子节点（父节点在被监听的子树中时从本地缓存读取）
      *
      * @param path 父节点路径
      * @return 子节点名称（如果父节点路径不存在则返回null）
      */
     public List<String> getChildren(String path) {
+        return getChildren(path, ReadConsistency.CACHE_FIRST);
+    }
+
+    /**
+     * 获取子节点
+     *
+     * @param path        父节点路径
+     * @param consistency 读一致性
+     * @return 子节点名称（如果父节点路径不存在则返回null）
+     */
+    public List<String> getChildren(String path, ReadConsistency consistency) {
+        if (consistency == ReadConsistency.CACHE_FIRST) {
+            String nodePath = buildPath(path);
+            WatchedTree tree = findWatchedTree(nodePath, 1);
+            Map<String, ChildData> children = tree == null ? null : tree.treeCache.getCurrentChildren(nodePath);
+            if (children != null) {
+                return new ArrayList<>(children.keySet());
+            }
+        }
         ensureConnected();
         try {
             if (!checkExists(path)) {
@@ -236,7 +687,7 @@ public class ZkTemplate {
             return null;
         }
         List<String> matchedChildren = new ArrayList<>();
-        Pattern pattern = Pattern.compile(childPattern);
+        Pattern pattern = getPattern(childPattern);
         for (String child : children) {
             if (pattern.matcher(child).matches()) {
                 matchedChildren.add(child);
@@ -245,6 +696,137 @@ public class ZkTemplate {
         return matchedChildren;
     }
 
+    /**
+     * 获取子节点及其数据
+     * <p>
+     * 先获取子节点，再并发获取所有子节点的数据（请求通过同一个zookeeper会话流水线发送），耗时与子节点数量基本无关；
+     * 子节点在被监听的子树中时直接从本地缓存读取；在zookeeper事件线程中（比如在监听器中）调用时逐个同步获取。
+     *
+     * @param path         父节点路径
+     * @param childPattern 子节点正则表达式（null表示所有子节点）
+     * @return 子节点及其数据和状态（key：子节点名称；获取子节点后又被删除的子节点不会被返回；如果父节点路径不存在则返回null）
+     */
+    public Map<String, ChildData> getChildrenData(String path, String childPattern) {
+        List<String> children = childPattern == null ? getChildren(path) : findChildren(path, childPattern);
+        if (children == null) {
+            return null;
+        }
+        List<String> childPaths = new ArrayList<>(children.size());
+        for (String child : children) {
+            childPaths.add(buildPath(path, child));
+        }
+        List<ChildData> childDatas;
+        WatchedTree tree = findWatchedTree(buildPath(path), 1);
+        if (tree != null) {
+            childDatas = new ArrayList<>(childPaths.size());
+            for (String childPath : childPaths) {
+                childDatas.add(tree.treeCache.getCurrentData(childPath));
+            }
+        } else if (isEventThread()) {
+            // 在zookeeper事件线程中不能等待后台操作的结果，只能逐个同步获取
+            childDatas = new ArrayList<>(childPaths.size());
+            for (String childPath : childPaths) {
+                childDatas.add(getChildDataQuietly(childPath));
+            }
+        } else {
+            try {
+                childDatas = pipeline(childPaths, childPath -> background(
+                        callback -> zkClient.getData().inBackground(callback).forPath(childPath),
+                        event -> {
+                            if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                                return null;
+                            }
+                            checkResult(event);
+                            return new ChildData(childPath, event.getStat(), event.getData());
+                        }));
+            } catch (Exception e) {
+                return ExceptionUtils.rethrow(e);
+            }
+        }
+        Map<String, ChildData> result = new LinkedHashMap<>(children.size() * 4 / 3 + 1);
+        for (int i = 0; i < children.size(); i++) {
+            ChildData childData = childDatas.get(i);
+            if (childData != null) {
+                result.put(children.get(i), childData);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 异步校验节点是否存在
+     *
+     * @param path 节点路径
+     * @return 节点是否存在
+     */
+    public CompletableFuture<Boolean> checkExistsAsync(String path) {
+        return background(callback -> zkClient.checkExists().inBackground(callback).forPath(path), event -> {
+            if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                return false;
+            }
+            checkResult(event);
+            return event.getStat() != null;
+        });
+    }
+
+    /**
+     * 异步删除节点（如果该节点存在子节点，则会递归删除子节点；节点不存在时视为删除成功）
+     *
+     * @param path 节点路径
+     * @return 删除结果
+     */
+    public CompletableFuture<Void> deleteNodeAsync(String path) {
+        return background(callback -> zkClient.delete().deletingChildrenIfNeeded().inBackground(callback).forPath(path), event -> {
+            if (event.getResultCode() != KeeperException.Code.NONODE.intValue()) {
+                checkResult(event);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 异步获取节点数据（节点不存在时以KeeperException.NoNodeException结束）
+     *
+     * @param path 节点路径
+     * @return 节点数据
+     */
+    public CompletableFuture<byte[]> getDataAsync(String path) {
+        return background(callback -> zkClient.getData().inBackground(callback).forPath(path), event -> {
+            checkResult(event);
+            return event.getData();
+        });
+    }
+
+    /**
+     * 异步给节点设置数据（节点不存在时以KeeperException.NoNodeException结束）
+     *
+     * @param path 节点路径
+     * @param data 数据
+     * @return 设置结果
+     */
+    public CompletableFuture<Void> setDataAsync(String path, byte[] data) {
+        return background(callback -> zkClient.setData().inBackground(callback).forPath(path, data), event -> {
+            checkResult(event);
+            return null;
+        });
+    }
+
+    /**
+     * 异步获取子节点
+     *
+     * @param path 父节点路径
+     * @return 子节点名称（如果父节点路径不存在则为null）
+     */
+    public CompletableFuture<List<String>> getChildrenAsync(String path) {
+        return background(callback -> zkClient.getChildren().inBackground(callback).forPath(path), event -> {
+            if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                return null;
+            }
+            checkResult(event);
+            return event.getChildren();
+        });
+    }
+
     /**
      * 获取zookeeper地址
      */
@@ -262,6 +844,24 @@ public class ZkTemplate {
         return zkClient.getNamespace();
     }
 
+    /**
+     * 执行zookeeper操作（未链接时与其他操作一样等待链接、熔断或快速失败）
+     * <p>
+     * 用于ZkTemplate未直接提供的操作，直接通过getZkClient()执行的操作不受链接保护。
+     *
+     * @param operation 操作
+     * @param <T>       结果类型
+     * @return 操作结果
+     */
+    public <T> T execute(ZkOperation<T> operation) {
+        ensureConnected();
+        try {
+            return operation.execute(zkClient);
+        } catch (Exception e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
     /**
      * 获取zkClient
      */
@@ -270,24 +870,442 @@ public class ZkTemplate {
     }
 
     /**
-     * 关闭（释放zookeeper链接）
+     * 关闭（释放zookeeper链接；共享的ZkTemplate只释放引用，最后一个引用被释放时才关闭zookeeper链接）
      */
     public void close() {
-        zkClient.close();
+        for (String path : new ArrayList<>(watchedTrees.keySet())) {
+            unlistenTree(path);
+        }
+        synchronized (this) {
+            for (SharedNodeCache sharedNodeCache : nodeCaches.values()) {
+                closeQuietly(sharedNodeCache.nodeCache);
+            }
+            nodeCaches.clear();
+        }
+        zkClient.getConnectionStateListenable().removeListener(connectionStateListener);
+        if (closeAction == null) {
+            zkClient.close();
+        } else {
+            closeAction.run();
+        }
     }
 
-    // 确保已成功链接zookeeper或者等待超时
+    // 从本地缓存获取节点（path需是通过buildPath规范化的路径；节点未被监听或本地缓存中不存在时返回null）
+    private ChildData getCachedData(String path) {
+        SharedNodeCache sharedNodeCache = nodeCaches.isEmpty() ? null : nodeCaches.get(path);
+        ChildData data = sharedNodeCache == null ? null : sharedNodeCache.nodeCache.getCurrentData();
+        if (data != null) {
+            return data;
+        }
+        WatchedTree tree = findWatchedTree(path, 0);
+        return tree == null ? null : tree.treeCache.getCurrentData(path);
+    }
+
+    // 关闭NodeCache（忽略异常）
+    private static void closeQuietly(NodeCache nodeCache) {
+        try {
+            nodeCache.close();
+        } catch (Throwable e) {
+            // 忽略
+        }
+    }
+
+    // 获取编译后的正则表达式（缓存最近使用的正则表达式）
+    private static Pattern getPattern(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            if (PATTERNS.size() >= MAX_CACHED_PATTERNS) {
+                PATTERNS.clear();
+            }
+            pattern = Pattern.compile(regex);
+            PATTERNS.put(regex, pattern);
+        }
+        return pattern;
+    }
+
+    // 监听子树
+    private synchronized TreeCache listenTree(String path, int maxDepth, TreeCacheListener... listeners) {
+        String rootPath = buildPath(path);
+        if (watchedTrees.containsKey(rootPath)) {
+            throw new IllegalStateException(String.format("子树[%s]已被监听", rootPath));
+        }
+        ensureConnected();
+        try {
+            TreeCache treeCache = TreeCache.newBuilder(zkClient, rootPath).setCacheData(true).setMaxDepth(maxDepth).build();
+            WatchedTree tree = new WatchedTree(rootPath, maxDepth, treeCache);
+            treeCache.getListenable().addListener(tree);
+            for (TreeCacheListener listener : listeners) {
+                treeCache.getListenable().addListener(listener);
+            }
+            treeCache.start();
+            watchedTrees.put(rootPath, tree);
+            return treeCache;
+        } catch (Exception e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    // 查找缓存了节点的被监听子树（path需是通过buildPath规范化的路径；depthOffset：读取节点本身为0，读取子节点为1；找不到或子树未初始化完成则返回null）
+    private WatchedTree findWatchedTree(String path, int depthOffset) {
+        if (watchedTrees.isEmpty()) {
+            return null;
+        }
+        for (WatchedTree tree : watchedTrees.values()) {
+            int depth = tree.depthOf(path);
+            if (depth >= 0 && depth + depthOffset <= tree.maxDepth && tree.initialized) {
+                return tree;
+            }
+        }
+        return null;
+    }
+
+    // 同步获取节点数据和状态（节点不存在时返回null）
+    private ChildData getChildDataQuietly(String path) {
+        try {
+            Stat stat = new Stat();
+            byte[] data = zkClient.getData().storingStatIn(stat).forPath(path);
+            return new ChildData(path, stat, data);
+        } catch (KeeperException.NoNodeException e) {
+            return null;
+        } catch (Exception e) {
+            return ExceptionUtils.rethrow(e);
+        }
+    }
+
+    // 当前线程是否是zookeeper的事件线程（事件线程中不能等待后台操作的结果，否则会死锁）
+    private static boolean isEventThread() {
+        return ZK_EVENT_THREAD_CLASS.equals(Thread.currentThread().getClass().getName());
+    }
+
+    // 对每个路径执行后台操作并等待全部完成（不能在zookeeper事件线程中调用；每次最多发送MAX_PIPELINED_REQUESTS个请求；返回结果的顺序与路径的顺序相同）
+    private static <T> List<T> pipeline(List<String> paths, Function<String, CompletableFuture<T>> operation) throws Exception {
+        List<T> results = new ArrayList<>(paths.size());
+        List<CompletableFuture<T>> futures = new ArrayList<>(Math.min(paths.size(), MAX_PIPELINED_REQUESTS));
+        for (int start = 0; start < paths.size(); start += MAX_PIPELINED_REQUESTS) {
+            futures.clear();
+            for (String path : paths.subList(start, Math.min(start + MAX_PIPELINED_REQUESTS, paths.size()))) {
+                futures.add(operation.apply(path));
+            }
+            for (CompletableFuture<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    return ExceptionUtils.rethrow(e.getCause());
+                }
+            }
+        }
+        return results;
+    }
+
+    // 在后台执行操作（请求通过同一个zookeeper会话流水线发送，不会阻塞调用线程）
+    private static <T> CompletableFuture<T> background(BackgroundOperation operation, EventConverter<T> converter) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            operation.execute((client, event) -> {
+                try {
+                    future.complete(converter.convert(event));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // 校验后台操作的结果（失败时抛出对应的KeeperException）
+    private static void checkResult(CuratorEvent event) throws KeeperException {
+        KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+        if (code != KeeperException.Code.OK) {
+            throw KeeperException.create(code, event.getPath());
+        }
+    }
+
+    // 创建节点（父节点需已存在；节点已存在时视为成功）
+    private void createNodeIfAbsent(String path, CreateMode mode) throws Exception {
+        try {
+            zkClient.create().withMode(mode).forPath(path);
+        } catch (KeeperException.NodeExistsException e) {
+            // 节点已存在
+        }
+    }
+
+    // 查找事务中执行失败的操作的序号（找不到则返回-1）
+    private static int findFailedOp(KeeperException e) {
+        List<OpResult> results = e.getResults();
+        if (results == null) {
+            return -1;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            OpResult result = results.get(i);
+            if (result instanceof OpResult.ErrorResult && ((OpResult.ErrorResult) result).getErr() == KeeperException.Code.NODEEXISTS.intValue()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 确保已成功链接zookeeper或者等待超时（已链接时只读取一次volatile变量）
     private void ensureConnected() {
+        if (connected) {
+            return;
+        }
+        if ((failFast || circuitOpen) && !zkClient.getZookeeperClient().isConnected()) {
+            rejectedAmount.incrementAndGet();
+            throw new IllegalStateException(String.format("未链接zookeeper[%s]", StringUtils.join(getZkUrls(), ZK_URLS_SEPARATOR)));
+        }
+        long startTime = System.nanoTime();
         try {
-            boolean connected = zkClient.blockUntilConnected(BASE_SLEEP_TIME_MS * MAX_RETRIES, TimeUnit.MILLISECONDS);
-            if (!connected) {
+            boolean success = zkClient.blockUntilConnected((int) Math.min(connectTimeout, Integer.MAX_VALUE), TimeUnit.MILLISECONDS);
+            if (!success) {
+                circuitOpen = true;
+                if (zkClient.getZookeeperClient().isConnected()) {
+                    // 熔断时恰好已重新链接
+                    circuitOpen = false;
+                }
                 throw new IllegalStateException(String.format("链接zookeeper[%s]失败", StringUtils.join(getZkUrls(), ZK_URLS_SEPARATOR)));
             }
         } catch (InterruptedException e) {
             ExceptionUtils.rethrow(e);
+        } finally {
+            waitedAmount.incrementAndGet();
+            waitedNanos.addAndGet(System.nanoTime() - startTime);
+        }
+    }
+
+    // 链接状态变化
+    private void onStateChanged(CuratorFramework client, ConnectionState newState) {
+        boolean nowConnected = newState.isConnected();
+        if (nowConnected) {
+            circuitOpen = false;
+        }
+        connected = nowConnected;
+    }
+
+    // 解码后的值
+    private static class DecodedValue {
+        // 编解码器
+        final ZkCodec<?> codec;
+        // 节点最后一次被修改的zxid（节点被删除后重建时也会变化）
+        final long modifiedZxid;
+        // 值
+        final Object value;
+
+        DecodedValue(ZkCodec<?> codec, long modifiedZxid, Object value) {
+            this.codec = codec;
+            this.modifiedZxid = modifiedZxid;
+            this.value = value;
+        }
+    }
+
+    // 一次监听的NodeCache视图（读取共享的NodeCache，关闭时只删除本次监听添加的监听器）
+    private class NodeCacheView extends NodeCache {
+        // 节点路径
+        private final String path;
+        // 本次监听添加的监听器
+        private final List<NodeListener> listeners = new ArrayList<>();
+        // 通过本视图添加的NodeCacheListener（关闭视图时从共享的NodeCache中删除）
+        private final ViewListenerContainer listenable = new ViewListenerContainer();
+
+        NodeCacheView(String path) {
+            super(zkClient, path);
+            this.path = path;
+        }
+
+        @Override
+        public void start() {
+            throw new IllegalStateException("共享的NodeCache已启动");
+        }
+
+        @Override
+        public void start(boolean buildInitial) {
+            throw new IllegalStateException("共享的NodeCache已启动");
+        }
+
+        @Override
+        public void rebuild() throws Exception {
+            getShared().rebuild();
+        }
+
+        @Override
+        public ChildData getCurrentData() {
+            return getShared().getCurrentData();
+        }
+
+        @Override
+        public ListenerContainer<NodeCacheListener> getListenable() {
+            return listenable;
+        }
+
+        @Override
+        public void close() {
+            listenable.clear();
+            for (NodeListener listener : listeners) {
+                unlistenNode(path, listener);
+            }
+        }
+
+        // 获取共享的NodeCache
+        private NodeCache getShared() {
+            SharedNodeCache sharedNodeCache = nodeCaches.get(path);
+            if (sharedNodeCache == null) {
+                throw new IllegalStateException(String.format("节点[%s]已不再被监听", path));
+            }
+            return sharedNodeCache.nodeCache;
+        }
+
+        // 视图的监听器容器（监听器添加到共享的NodeCache，同时记录在本容器中，清空时只删除通过本容器添加的监听器）
+        private class ViewListenerContainer extends ListenerContainer<NodeCacheListener> {
+            // 通过本容器添加的监听器
+            private final List<NodeCacheListener> added = new CopyOnWriteArrayList<>();
+
+            @Override
+            public void addListener(NodeCacheListener listener) {
+                getShared().getListenable().addListener(listener);
+                super.addListener(listener);
+                added.add(listener);
+            }
+
+            @Override
+            public void addListener(NodeCacheListener listener, Executor executor) {
+                getShared().getListenable().addListener(listener, executor);
+                super.addListener(listener, executor);
+                added.add(listener);
+            }
+
+            @Override
+            public void removeListener(NodeCacheListener listener) {
+                if (!added.remove(listener)) {
+                    return;
+                }
+                super.removeListener(listener);
+                SharedNodeCache sharedNodeCache = nodeCaches.get(path);
+                if (sharedNodeCache != null) {
+                    sharedNodeCache.nodeCache.getListenable().removeListener(listener);
+                }
+            }
+
+            @Override
+            public void clear() {
+                for (NodeCacheListener listener : added) {
+                    removeListener(listener);
+                }
+            }
+        }
+    }
+
+    // 共享的NodeCache
+    private static class SharedNodeCache {
+        // 底层NodeCache
+        final NodeCache nodeCache;
+        // 监听器
+        final Set<NodeListener> listeners = new HashSet<>();
+        // 启动完成（启动失败时以异常完成）
+        final CompletableFuture<Void> started = new CompletableFuture<>();
+
+        SharedNodeCache(NodeCache nodeCache) {
+            this.nodeCache = nodeCache;
+        }
+    }
+
+    // 被监听的子树
+    private static class WatchedTree implements TreeCacheListener {
+        // 根节点路径
+        final String rootPath;
+        // 最大深度（根节点的深度为0）
+        final int maxDepth;
+        // 底层TreeCache
+        final TreeCache treeCache;
+        // 是否已初始化完成（初始化完成前本地缓存不完整，不能从本地缓存读取）
+        volatile boolean initialized = false;
+
+        WatchedTree(String rootPath, int maxDepth, TreeCache treeCache) {
+            this.rootPath = rootPath;
+            this.maxDepth = maxDepth;
+            this.treeCache = treeCache;
+        }
+
+        @Override
+        public void childEvent(CuratorFramework client, TreeCacheEvent event) {
+            if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+                initialized = true;
+            }
+        }
+
+        // 计算节点相对于根节点的深度（节点不在该子树中时返回-1）
+        int depthOf(String path) {
+            int start;
+            if (rootPath.length() == 1) {
+                // 根节点为"/"
+                if (path.isEmpty() || path.charAt(0) != NODES_SEPARATOR) {
+                    return -1;
+                }
+                start = 0;
+            } else {
+                if (!path.startsWith(rootPath)) {
+                    return -1;
+                }
+                if (path.length() == rootPath.length()) {
+                    return 0;
+                }
+                if (path.charAt(rootPath.length()) != NODES_SEPARATOR) {
+                    return -1;
+                }
+                start = rootPath.length();
+            }
+            int depth = 0;
+            for (int i = start; i < path.length(); i++) {
+                if (path.charAt(i) == NODES_SEPARATOR && i + 1 < path.length()) {
+                    depth++;
+                }
+            }
+            return depth;
         }
     }
 
+    // 后台操作
+    @FunctionalInterface
+    private interface BackgroundOperation {
+        // 执行（操作完成后调用callback）
+        void execute(BackgroundCallback callback) throws Exception;
+    }
+
+    // 后台操作结果转换器
+    @FunctionalInterface
+    private interface EventConverter<T> {
+        // 转换
+        T convert(CuratorEvent event) throws Exception;
+    }
+
+    /**
+     * 读一致性
+     */
+    public enum ReadConsistency {
+        /**
+         * 节点在被监听的子树中时从本地缓存读取（由监听维护，可能短暂落后于服务端），否则从服务端读取
+         */
+        CACHE_FIRST,
+        /**
+         * 总是从服务端读取
+         */
+        SERVER
+    }
+
+    /**
+     * zookeeper操作
+     */
+    @FunctionalInterface
+    public interface ZkOperation<T> {
+        /**
+         * 执行
+         *
+         * @param zkClient zookeeper客户端
+         * @return 操作结果
+         */
+        T execute(CuratorFramework zkClient) throws Exception;
+    }
+
     /**
      * 节点监听器
      */
@@ -0,0 +1,64 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 22:20 创建
+ */
+package org.antframework.common.util.id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * id字符串编解码器单元测试
+ */
+public class IdCodecTest {
+
+    @Test
+    public void testDecimal() {
+        IdCodec codec = new IdCodec(PeriodType.HOUR, 6);
+        Period period = Period.parse(PeriodType.HOUR, 2017112223L);
+        Assert.assertEquals("2017112223000123", codec.format(new Id(period, 123)));
+        Assert.assertEquals("20171122231234567", codec.format(period, 1234567));
+        Assert.assertEquals("id:2017112223000000", codec.formatTo(new StringBuilder("id:"), period, 0).toString());
+
+        Assert.assertEquals(new Id(period, 123), codec.parse("2017112223000123"));
+        Assert.assertEquals(new Id(period.grow(1), 1234567), codec.parse("20171123001234567"));
+        Assert.assertEquals(codec.format(period, 9), period.toString() + "000009");
+
+        IdCodec noneCodec = new IdCodec(PeriodType.NONE, 4);
+        Assert.assertEquals("0012", noneCodec.format(new Period(PeriodType.NONE, null), 12));
+        Assert.assertEquals(12, noneCodec.parse("0012").getId());
+    }
+
+    @Test
+    public void testCompact() {
+        Period period = Period.parse(PeriodType.DAY, 20171122L);
+        for (IdCodec.Format format : new IdCodec.Format[]{IdCodec.Format.BASE32, IdCodec.Format.BASE62}) {
+            IdCodec codec = new IdCodec(PeriodType.DAY, 10, format);
+            String text1 = codec.format(period, 99);
+            String text2 = codec.format(period, 100);
+            String text3 = codec.format(period.grow(1), 0);
+            Assert.assertEquals(format == IdCodec.Format.BASE32 ? 13 : 11, text1.length());
+            Assert.assertTrue(text1.compareTo(text2) < 0);
+            Assert.assertTrue(text2.compareTo(text3) < 0);
+            Assert.assertEquals(new Id(period, 99), codec.parse(text1));
+            Assert.assertEquals(new Id(period.grow(1), 0), codec.parse(text3));
+        }
+    }
+
+    @Test
+    public void testParseIllegal() {
+        IdCodec codec = new IdCodec(PeriodType.DAY, 6);
+        for (String text : new String[]{"20171122", "2017112a000001", "20171322000001", "2017112299999999999999999999"}) {
+            try {
+                codec.parse(text);
+                Assert.fail("非法的id字符串应抛出异常：" + text);
+            } catch (IllegalArgumentException e) {
+                // 预期异常
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 11:40 创建
+ */
+package org.antframework.common.util.id;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * long型id编解码器单元测试
+ */
+public class LongIdCodecTest {
+    private Date testDate = DateUtils.parseDate("2017-11-22 23:48:21.250", "yyyy-MM-dd HH:mm:ss.SSS");
+
+    public LongIdCodecTest() throws ParseException {
+    }
+
+    @Test
+    public void testEncode() {
+        LongIdCodec codec = new LongIdCodec(PeriodType.HOUR, 6);
+        Assert.assertEquals(2017112223000123L, codec.encode(new Id(new Period(PeriodType.HOUR, testDate), 123)));
+
+        codec = new LongIdCodec(PeriodType.NONE, 18);
+        Assert.assertEquals(123L, codec.encode(new Id(new Period(PeriodType.NONE, null), 123)));
+    }
+
+    @Test
+    public void testDecode() {
+        for (PeriodType type : PeriodType.values()) {
+            LongIdCodec codec = new LongIdCodec(type, LongIdCodec.getMaxSequenceDigits(type));
+            Id id = new Id(new Period(type, testDate), 999);
+            Assert.assertEquals(id, codec.decode(codec.encode(id)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeOverflow() {
+        new LongIdCodec(PeriodType.DAY, 3).encode(new Id(new Period(PeriodType.DAY, testDate), 1000));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 16:10 创建
+ */
+package org.antframework.common.util.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * 可控制时间的时钟（单元测试用）
+ */
+public class MockClock extends Clock {
+    // 当前时间毫秒数
+    private volatile long millis;
+
+    public MockClock(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * 设置当前时间
+     *
+     * @param millis 时间毫秒数
+     */
+    public void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * 拨动时间
+     *
+     * @param delta 拨动的毫秒数（负数表示回拨）
+     */
+    public synchronized void add(long delta) {
+        millis += delta;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneId.systemDefault();
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 13:45 创建
+ */
+package org.antframework.common.util.id;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+
+/**
+ * 周期时钟单元测试
+ */
+public class PeriodClockTest {
+    // 可控制时间的时钟
+    private MockClock clock = new MockClock(DateUtils.parseDate("2017-11-22 23:48:21.250", "yyyy-MM-dd HH:mm:ss.SSS").getTime());
+
+    public PeriodClockTest() throws ParseException {
+    }
+
+    @Test
+    public void testCurrent() throws ParseException {
+        PeriodClock periodClock = new PeriodClock(PeriodType.HOUR, clock);
+        Period period = periodClock.current();
+        Assert.assertEquals(DateUtils.parseDate("2017-11-22 23:00:00.000", "yyyy-MM-dd HH:mm:ss.SSS"), period.getDate());
+        // 未跨越周期边界时返回同一个周期
+        clock.add(10 * 60 * 1000);
+        Assert.assertSame(period, periodClock.current());
+        // 跨越周期边界
+        clock.add(10 * 60 * 1000);
+        Assert.assertEquals(period.grow(1), periodClock.current());
+        // 时钟回拨
+        clock.add(-60 * 60 * 1000);
+        Assert.assertEquals(period, periodClock.current());
+    }
+}
@@ -12,8 +12,14 @@ import org.apache.commons.lang3.time.DateUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * 周期单元测试
@@ -40,4 +46,86 @@ public class PeriodTest {
 
         Assert.assertEquals(null, new Period(PeriodType.NONE, testDate).getDate());
     }
+
+    @Test
+    public void testNumber() {
+        Assert.assertEquals(2017112223L, new Period(PeriodType.HOUR, testDate).getNumber());
+        Assert.assertEquals(20171122L, new Period(PeriodType.DAY, testDate).getNumber());
+        Assert.assertEquals(201711L, new Period(PeriodType.MONTH, testDate).getNumber());
+        Assert.assertEquals(2017L, new Period(PeriodType.YEAR, testDate).getNumber());
+        Assert.assertEquals(0L, new Period(PeriodType.NONE, testDate).getNumber());
+
+        for (PeriodType type : PeriodType.values()) {
+            Period period = new Period(type, testDate);
+            Assert.assertEquals(period, Period.parse(type, period.getNumber()));
+            Assert.assertEquals(period.toString(), period.getNumber() == 0 ? "" : Long.toString(period.getNumber()));
+        }
+    }
+
+    @Test
+    public void testGrow() throws ParseException {
+        Period hour = new Period(PeriodType.HOUR, testDate);
+        Assert.assertEquals(2017112300L, hour.grow(1).getNumber());
+        Assert.assertEquals(2017112122L, hour.grow(-25).getNumber());
+        Period month = new Period(PeriodType.MONTH, testDate);
+        Assert.assertEquals(201801L, month.grow(2).getNumber());
+        Assert.assertEquals(201612L, month.grow(-11).getNumber());
+        Assert.assertEquals(DateUtils.parseDate("2018-01-01 00:00:00.000", "yyyy-MM-dd HH:mm:ss.SSS"), month.grow(2).getDate());
+        Assert.assertEquals(month.grow(1).getStartTime(), month.getEndTime());
+        Assert.assertEquals(DateUtils.parseDate("2017-11-23 00:00:00.000", "yyyy-MM-dd HH:mm:ss.SSS").getTime(), new Period(PeriodType.DAY, testDate).getEndTime());
+        Assert.assertEquals(Long.MAX_VALUE, new Period(PeriodType.NONE, null).getEndTime());
+
+        Assert.assertTrue(month.compareTo(month.grow(1)) < 0);
+        Assert.assertEquals(month, Period.parse(PeriodType.MONTH, 201803L).grow(-4));
+        Assert.assertEquals(month.hashCode(), month.grow(3).grow(-3).hashCode());
+    }
+
+    @Test
+    public void testOf() {
+        Period period = Period.of(PeriodType.DAY, testDate.getTime());
+        Assert.assertEquals(new Period(PeriodType.DAY, testDate), period);
+        // 同一周期内反复获取时返回同一个实例
+        Assert.assertSame(period, Period.of(PeriodType.DAY, testDate.getTime() + 1000));
+        Assert.assertSame(period, Period.of(PeriodType.DAY, period.getStartTime()));
+        Assert.assertNotSame(period, Period.of(PeriodType.DAY, period.getEndTime()));
+        Assert.assertEquals(period.grow(1), Period.of(PeriodType.DAY, period.getEndTime()));
+    }
+
+    @Test
+    public void testZone() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+            Period shanghai = Period.of(PeriodType.DAY, testDate.getTime());
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            // 系统默认时区变化后不会返回缓存的其他时区的周期
+            Period utc = Period.of(PeriodType.DAY, testDate.getTime());
+            Assert.assertNotEquals(shanghai, utc);
+            Assert.assertNotEquals(shanghai.hashCode(), utc.hashCode());
+            // 不同时区的周期按开始时间比较
+            Assert.assertEquals(Long.signum(shanghai.getStartTime() - utc.getStartTime()), Integer.signum(shanghai.compareTo(utc)));
+            Assert.assertEquals(-Integer.signum(shanghai.compareTo(utc)), Integer.signum(utc.compareTo(shanghai)));
+            Assert.assertTrue(shanghai.grow(1).compareTo(utc) > 0);
+            Assert.assertTrue(utc.compareTo(shanghai.grow(1)) < 0);
+            Assert.assertTrue(utc.grow(1).compareTo(shanghai) > 0);
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void testSerialize() throws IOException, ClassNotFoundException {
+        for (PeriodType type : PeriodType.values()) {
+            Period period = new Period(type, testDate);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(period);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                Period deserialized = (Period) in.readObject();
+                Assert.assertEquals(period, deserialized);
+                Assert.assertEquals(period.getEndTime(), deserialized.getEndTime());
+            }
+        }
+    }
 }
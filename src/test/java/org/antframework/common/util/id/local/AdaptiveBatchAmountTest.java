@@ -0,0 +1,102 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 20:30 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.MockClock;
+import org.antframework.common.util.id.Period;
+import org.antframework.common.util.id.PeriodClock;
+import org.antframework.common.util.id.PeriodType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 自适应批量id数量单元测试
+ */
+public class AdaptiveBatchAmountTest {
+
+    @Test
+    public void testNext() {
+        AdaptiveBatchAmount adaptive = new AdaptiveBatchAmount(10, 10000, 1000, 4);
+        // 没有样本时使用默认数量
+        Assert.assertEquals(100, adaptive.next(0, 0, 100));
+        // 100毫秒发放了100个id（速率1个/毫秒），目标间隔1000毫秒需要1000个
+        Assert.assertEquals(1000, adaptive.next(100, 100, 100));
+        // 200毫秒发放了1100个id，速率5.5个/毫秒
+        Assert.assertEquals(5500, adaptive.next(200, 1100, 100));
+        // 负载突增时不超过最大数量
+        Assert.assertEquals(10000, adaptive.next(201, 11100, 100));
+        // 负载降低后逐渐减小，不低于最小数量
+        int amount = 0;
+        for (long now = 1000000; now < 10000000; now += 1000000) {
+            amount = adaptive.next(now, 11100, 100);
+        }
+        Assert.assertEquals(10, amount);
+    }
+
+    @Test
+    public void testPrefetchAndRollover() throws InterruptedException {
+        // 从周期结束前10秒开始，以每秒10个id的速率获取id，中途跨周期
+        MockClock clock = new MockClock(Period.parse(PeriodType.DAY, 20171122L).getEndTime() - 10000);
+        IdGenerator idGenerator = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 100, 1000000L, null, "order");
+        // 使用了20%就预取下一批id，滑动窗口较小时按获取的数量估算会严重偏离实际消耗
+        idGenerator.setPrefetchThreshold(0.2);
+        idGenerator.setAdaptiveBatchAmount(new AdaptiveBatchAmount(1, 100000, 1000, 2));
+        List<Integer> amounts = new CopyOnWriteArrayList<>();
+        idGenerator.setListener(new IdGeneratorListener() {
+            @Override
+            public void onRefill(IdGenerator generator, IdRange range, long latencyNanos) {
+                amounts.add(range.getAmount());
+            }
+        });
+        for (int i = 0; i < 300; i++) {
+            idGenerator.acquire();
+            clock.add(100);
+            // 等待异步预取完成，使预取时读取的时间和已发放id个数是确定的
+            Thread.sleep(1);
+        }
+        Assert.assertTrue(idGenerator.getPeriodClock().current().getNumber() > 20171122L);
+        // 预取和跨周期舍弃的id不计入消耗，第一批（默认数量）之后每批id的数量都稳定在目标间隔内的消耗量（10个）附近
+        Assert.assertTrue(amounts.size() > 10);
+        for (int amount : amounts.subList(1, amounts.size())) {
+            Assert.assertTrue("批量id数量偏离实际消耗：" + amounts, amount >= 8 && amount <= 12);
+        }
+    }
+
+    @Test
+    public void testIdGenerator() {
+        IdGenerator idGenerator = new IdGenerator(PeriodType.NONE, 10, null, null);
+        idGenerator.setAdaptiveBatchAmount(new AdaptiveBatchAmount(10, 1000000, 60000));
+        long last = -1;
+        for (int i = 0; i < 100000; i++) {
+            long id = idGenerator.acquire().getId();
+            Assert.assertTrue(id > last);
+            last = id;
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testAcquireRangeAboveMaxAmount() {
+        IdGenerator idGenerator = new IdGenerator(PeriodType.NONE, 100, null, null);
+        // 自适应批量id的最大数量小于批量获取的id个数
+        idGenerator.setAdaptiveBatchAmount(new AdaptiveBatchAmount(5, 10, 60000));
+        long last = -1;
+        for (int i = 0; i < 100; i++) {
+            IdRange range = idGenerator.acquire(50);
+            Assert.assertEquals(50, range.getAmount());
+            Assert.assertTrue(range.getStartId() > last);
+            last = range.getStartId() + range.getAmount() - 1;
+        }
+        // 每次批量获取最多触发一次替换批量id和一次直接占用
+        Assert.assertTrue(idGenerator.getMetrics().getRefillAmount() <= 1 + 100 * 2);
+    }
+}
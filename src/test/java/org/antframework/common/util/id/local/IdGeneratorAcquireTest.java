@@ -0,0 +1,166 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 10:20 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.LongIdCodec;
+import org.antframework.common.util.id.MockClock;
+import org.antframework.common.util.id.Period;
+import org.antframework.common.util.id.PeriodClock;
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.store.MapFileAnchorStore;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * id生成器获取id单元测试
+ */
+public class IdGeneratorAcquireTest {
+    private File file;
+    private IdGenerator idGenerator;
+
+    @Before
+    public void init() throws IOException {
+        file = File.createTempFile("idGenerator", ".properties");
+        idGenerator = new IdGenerator(PeriodType.HOUR, 10000, 1000000L, file.getPath());
+    }
+
+    @After
+    public void destroy() {
+        file.delete();
+    }
+
+    @Test
+    public void testAcquireConcurrently() throws InterruptedException {
+        int threadAmount = 16;
+        int countPerThread = 10000;
+        Set<Id> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threadAmount);
+        for (int i = 0; i < threadAmount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < countPerThread; j++) {
+                    ids.add(idGenerator.acquire());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+
+        Assert.assertEquals(threadAmount * countPerThread, ids.size());
+    }
+
+    @Test
+    public void testAcquireWithPrefetch() {
+        idGenerator.setPrefetchThreshold(0.5);
+
+        Set<Id> ids = new HashSet<>();
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            ids.add(idGenerator.acquire());
+        }
+        Assert.assertEquals(count, ids.size());
+    }
+
+    @Test
+    public void testAcquireRange() {
+        IdRange range1 = idGenerator.acquire(100);
+        Assert.assertEquals(100, range1.getAmount());
+        Id id = idGenerator.acquire();
+        Assert.assertFalse(range1.contains(id));
+        // 超过batchAmount的id区间
+        IdRange range2 = idGenerator.acquire(50000);
+        Assert.assertEquals(50000, range2.getAmount());
+        Assert.assertFalse(range2.contains(id));
+        Assert.assertFalse(range2.contains(range1.getId(0)));
+    }
+
+    @Test
+    public void testAcquireLong() {
+        long longId1 = idGenerator.acquireLong();
+        long longId2 = idGenerator.acquireLong();
+        Assert.assertTrue(longId1 < longId2);
+
+        Id id = idGenerator.getLongIdCodec().decode(longId1);
+        Assert.assertEquals(longId1, idGenerator.getLongIdCodec().encode(id));
+    }
+
+    @Test
+    public void testAcquireWithPeriodClock() {
+        MockClock clock = new MockClock(System.currentTimeMillis());
+        IdGenerator generator = new IdGenerator(new PeriodClock(PeriodType.HOUR, clock), 100, null, null);
+
+        Id id1 = generator.acquire();
+        Id id2 = generator.acquire();
+        Assert.assertEquals(id1.getPeriod(), id2.getPeriod());
+        Assert.assertEquals(id1.getId() + 1, id2.getId());
+        // 进入下一个周期后id重置
+        clock.add(60 * 60 * 1000);
+        Id id3 = generator.acquire();
+        Assert.assertEquals(id1.getPeriod().grow(1), id3.getPeriod());
+        Assert.assertEquals(0, id3.getId());
+    }
+
+    @Test
+    public void testAcquireAfterZoneChanged() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+            MockClock clock = new MockClock(System.currentTimeMillis());
+            IdGenerator generator = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 10, null, new MapFileAnchorStore(file.getPath()), "order");
+            for (int i = 0; i < 15; i++) {
+                generator.acquire();
+            }
+            // 系统默认时区变化后，已有的id生成器和重新加载锚点（按其他时区持久化）的id生成器都能继续获取id
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            for (int i = 0; i < 15; i++) {
+                generator.acquire();
+            }
+            Assert.assertEquals(generator.getPeriodClock().current(), generator.acquire().getPeriod());
+            // 进入下一个周期后时钟按新时区计算周期，与按原时区计算的锚点周期进行比较
+            clock.add(24 * 60 * 60 * 1000L);
+            Assert.assertEquals(Period.of(PeriodType.DAY, clock.millis()), generator.acquire().getPeriod());
+            Assert.assertNotNull(generator.getMetrics());
+            IdGenerator reloaded = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 10, null, new MapFileAnchorStore(file.getPath()), "order");
+            Assert.assertEquals(Period.of(PeriodType.DAY, clock.millis()), reloaded.acquire().getPeriod());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void testAcquireLongWithoutMaxId() {
+        IdGenerator generator = new IdGenerator(PeriodType.HOUR, 100, null, null);
+        Assert.assertNull(generator.getLongIdCodec());
+        try {
+            generator.acquireLong();
+            Assert.fail("未设置最大id时获取long型id应抛出异常");
+        } catch (IllegalStateException e) {
+            // 预期异常
+        }
+        try {
+            generator.setLongIdCodec(new LongIdCodec(PeriodType.HOUR, 8));
+            Assert.fail("未设置最大id时设置long型id编解码器应抛出异常");
+        } catch (IllegalArgumentException e) {
+            // 预期异常
+        }
+        // 获取long型id失败时不会占用id
+        Assert.assertEquals(0, generator.acquire().getId());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 23:30 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.IdRange;
+import org.antframework.common.util.id.MockClock;
+import org.antframework.common.util.id.Period;
+import org.antframework.common.util.id.PeriodClock;
+import org.antframework.common.util.id.PeriodType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * id生成器指标单元测试
+ */
+public class IdGeneratorMetricsTest {
+    // 可控制时间的时钟
+    private MockClock clock = new MockClock(Period.parse(PeriodType.DAY, 20171122L).getStartTime());
+
+    @Test
+    public void testMetrics() {
+        IdGenerator idGenerator = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 10, 1000L, null, "order");
+        AtomicInteger refills = new AtomicInteger(0);
+        idGenerator.setListener(new IdGeneratorListener() {
+            @Override
+            public void onRefill(IdGenerator generator, IdRange range, long latencyNanos) {
+                refills.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 25; i++) {
+            idGenerator.acquire();
+            clock.add(1000);
+        }
+        IdGeneratorMetrics metrics = idGenerator.getMetrics();
+        Assert.assertEquals(25, metrics.getIssuedAmount());
+        Assert.assertEquals(3, metrics.getRefillAmount());
+        Assert.assertEquals(2, refills.get());
+        Assert.assertEquals(2, metrics.getBlockedAmount());
+        Assert.assertEquals(975L, (long) metrics.getRemainingAmount());
+        // 每秒1个id，剩余975个id预计975秒后用完
+        Assert.assertEquals(1.0, metrics.getRate(), 0.001);
+        Assert.assertEquals(clock.millis() + 975 * 1000, (long) metrics.getExhaustionTime());
+    }
+
+    @Test
+    public void testMixedAcquire() {
+        IdGenerator idGenerator = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 10, 1000L, null, "order");
+        for (int i = 0; i < 3; i++) {
+            idGenerator.acquire();
+        }
+        idGenerator.acquire(5);
+        Assert.assertEquals(8, idGenerator.getMetrics().getIssuedAmount());
+        // 当前批量id剩余不足，剩余的2个id被舍弃，不计入已发放
+        idGenerator.acquire(4);
+        Assert.assertEquals(12, idGenerator.getMetrics().getIssuedAmount());
+        // 超过batchAmount时直接从id锚占用
+        idGenerator.acquire(20);
+        idGenerator.acquire();
+        Assert.assertEquals(33, idGenerator.getMetrics().getIssuedAmount());
+        // 跨周期后当前批量id的剩余id被舍弃
+        clock.add(24 * 60 * 60 * 1000L);
+        idGenerator.acquire();
+        idGenerator.acquireLong();
+        IdGeneratorMetrics metrics = idGenerator.getMetrics();
+        Assert.assertEquals(35, metrics.getIssuedAmount());
+        Assert.assertEquals(998L, (long) metrics.getRemainingAmount());
+    }
+
+    @Test
+    public void testExhausted() {
+        IdGenerator idGenerator = new IdGenerator(new PeriodClock(PeriodType.DAY, clock), 10, 25L, null, "order");
+        List<Period> exhaustedPeriods = new ArrayList<>();
+        idGenerator.setListener(new IdGeneratorListener() {
+            @Override
+            public void onExhausted(IdGenerator generator, Period period) {
+                exhaustedPeriods.add(period);
+            }
+        });
+        for (int i = 0; i < 30; i++) {
+            idGenerator.acquire();
+        }
+        Assert.assertEquals(1, exhaustedPeriods.size());
+        Assert.assertEquals(20171122L, exhaustedPeriods.get(0).getNumber());
+        Assert.assertEquals(0L, (long) idGenerator.getMetrics().getRemainingAmount());
+    }
+}
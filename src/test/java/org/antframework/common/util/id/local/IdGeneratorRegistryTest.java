@@ -0,0 +1,139 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 21:30 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.store.AbstractLocalAnchorStore;
+import org.antframework.common.util.id.store.Anchor;
+import org.antframework.common.util.id.store.MapFileAnchorStore;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * id生成器注册中心单元测试
+ */
+public class IdGeneratorRegistryTest {
+
+    @Test(timeout = 10000)
+    public void testGroupCommit() throws InterruptedException {
+        BlockingAnchorStore store = new BlockingAnchorStore();
+        IdGeneratorRegistry registry = new IdGeneratorRegistry(store);
+        int sequenceAmount = 40;
+        for (int i = 0; i < sequenceAmount; i++) {
+            registry.register("seq" + i, PeriodType.DAY, 10, null);
+            // 用完第一批id，下一次获取id时需要替换锚点
+            for (int j = 0; j < 10; j++) {
+                registry.acquire("seq" + i);
+            }
+        }
+        int initialStores = store.storeCount.get();
+
+        // 第一个序列的持久化被阻塞住
+        store.blocked = true;
+        Thread first = new Thread(() -> registry.acquire("seq0"));
+        first.start();
+        store.entered.await();
+        // 其他序列在此期间完成内存中的替换，并等待持久化
+        List<Thread> others = new ArrayList<>();
+        for (int i = 1; i < sequenceAmount; i++) {
+            String name = "seq" + i;
+            Thread thread = new Thread(() -> registry.acquire(name));
+            thread.start();
+            others.add(thread);
+        }
+        for (int i = 1; i < sequenceAmount; i++) {
+            while (store.read("seq" + i).getId() < 20) {
+                Thread.sleep(1);
+            }
+        }
+        store.gate.countDown();
+        first.join();
+        for (Thread thread : others) {
+            thread.join();
+        }
+
+        // 第一个序列单独持久化一次，其他序列的替换被合并为一次持久化
+        Assert.assertEquals(2, store.storeCount.get() - initialStores);
+        Assert.assertEquals(sequenceAmount, store.stored.size());
+        for (int i = 0; i < sequenceAmount; i++) {
+            Assert.assertEquals(20, store.stored.get("seq" + i).getId());
+            Assert.assertEquals(11, registry.acquire("seq" + i).getId());
+        }
+    }
+
+    @Test
+    public void testSharedFile() throws IOException {
+        File file = File.createTempFile("anchor", ".properties");
+        try {
+            IdGeneratorRegistry registry = new IdGeneratorRegistry(new MapFileAnchorStore(file.getPath()));
+            registry.register("order", PeriodType.DAY, 10, null);
+            registry.register("refund", PeriodType.NONE, 10, 1000L);
+            Assert.assertEquals(0, registry.acquire("order").getId());
+            Assert.assertEquals(0, registry.acquire("refund").getId());
+            try {
+                registry.register("order", PeriodType.DAY, 10, null);
+                Assert.fail("重复注册序列时应抛出异常");
+            } catch (IllegalStateException e) {
+                // 预期异常
+            }
+
+            // 重启后从同一个文件恢复所有序列
+            IdGeneratorRegistry newRegistry = new IdGeneratorRegistry(new MapFileAnchorStore(file.getPath()));
+            newRegistry.register("order", PeriodType.DAY, 10, null);
+            newRegistry.register("refund", PeriodType.NONE, 10, 1000L);
+            Assert.assertEquals(10, newRegistry.acquire("order").getId());
+            Assert.assertEquals(10, newRegistry.acquire("refund").getId());
+        } finally {
+            file.delete();
+        }
+    }
+
+    // 持久化可被阻塞的锚点存储器
+    private static class BlockingAnchorStore extends AbstractLocalAnchorStore {
+        // 持久化次数
+        private final AtomicInteger storeCount = new AtomicInteger(0);
+        // 最近一次持久化的锚点
+        private volatile Map<String, Anchor> stored = new HashMap<>();
+        // 是否阻塞下一次持久化
+        private volatile boolean blocked = false;
+        // 被阻塞的持久化已开始
+        private final CountDownLatch entered = new CountDownLatch(1);
+        // 放行被阻塞的持久化
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        protected Map<String, Anchor> loadAll() {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected void storeAll(Map<String, Anchor> anchors) {
+            if (blocked) {
+                blocked = false;
+                entered.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            stored = anchors;
+            storeCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 14:55 创建
+ */
+package org.antframework.common.util.id.local;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.PeriodType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 条带化id生成器单元测试
+ */
+public class StripedIdGeneratorTest {
+    private StripedIdGenerator idGenerator = new StripedIdGenerator(new IdGenerator(PeriodType.HOUR, 10000, 100000000L, null), 100);
+
+    @Test
+    public void testAcquire() throws InterruptedException {
+        int threadAmount = 8;
+        int countPerThread = 10000;
+        Set<Id> ids = ConcurrentHashMap.newKeySet();
+        Set<Long> longIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threadAmount);
+        for (int i = 0; i < threadAmount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < countPerThread; j++) {
+                    ids.add(idGenerator.acquire());
+                    longIds.add(idGenerator.acquireLong());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+
+        Assert.assertEquals(threadAmount * countPerThread, ids.size());
+        Assert.assertEquals(threadAmount * countPerThread, longIds.size());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 15:50 创建
+ */
+package org.antframework.common.util.id.snowflake;
+
+import org.antframework.common.util.id.MockClock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 雪花算法id生成器单元测试
+ */
+public class SnowflakeIdGeneratorTest {
+    // 可控制时间的时钟
+    private MockClock clock = new MockClock(System.currentTimeMillis());
+
+    @Test
+    public void testAcquire() throws InterruptedException {
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(3);
+        int threadAmount = 8;
+        int countPerThread = 100000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threadAmount);
+        for (int i = 0; i < threadAmount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < countPerThread; j++) {
+                    ids.add(idGenerator.acquireLong());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+
+        Assert.assertEquals(threadAmount * countPerThread, ids.size());
+        for (long id : ids) {
+            Assert.assertEquals(3, idGenerator.getWorkerId(id));
+        }
+    }
+
+    @Test
+    public void testParse() {
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1023, SnowflakeIdGenerator.DEFAULT_EPOCH, 5, clock);
+        long id1 = idGenerator.acquireLong();
+        long id2 = idGenerator.acquireLong();
+        Assert.assertEquals(clock.millis(), idGenerator.getTime(id1));
+        Assert.assertEquals(1023, idGenerator.getWorkerId(id1));
+        Assert.assertEquals(0, idGenerator.getSequence(id1));
+        Assert.assertEquals(1, idGenerator.getSequence(id2));
+    }
+
+    @Test
+    public void testSequenceOverflow() {
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 5, clock);
+        long startTime = clock.millis();
+        for (int i = 0; i < 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+            Assert.assertEquals(startTime, idGenerator.getTime(idGenerator.acquireLong()));
+        }
+        // 序列号用完后会自旋等待到下一毫秒
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            clock.add(1);
+        }).start();
+        long id = idGenerator.acquireLong();
+        Assert.assertEquals(startTime + 1, idGenerator.getTime(id));
+        Assert.assertEquals(0, idGenerator.getSequence(id));
+    }
+
+    @Test
+    public void testClockBackward() {
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 5, clock);
+        long id1 = idGenerator.acquireLong();
+        // 容忍范围内的回拨沿用上次的时间戳
+        clock.add(-3);
+        long id2 = idGenerator.acquireLong();
+        Assert.assertTrue(id2 > id1);
+        Assert.assertEquals(idGenerator.getTime(id1), idGenerator.getTime(id2));
+        // 超过容忍范围的回拨抛出异常
+        clock.add(-10);
+        try {
+            idGenerator.acquireLong();
+            Assert.fail("时钟回拨超过容忍范围时应抛出异常");
+        } catch (IllegalStateException e) {
+            // 预期异常
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 11:30 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.local.IdGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 锚点存储器单元测试（所有锚点存储器都需满足的约定，子类提供被测试的锚点存储器）
+ */
+public abstract class AbstractAnchorStoreTest {
+
+    @Test
+    public void testCompareAndSwap() {
+        AnchorStore store = createStore();
+        Assert.assertNull(store.read("order"));
+
+        Anchor anchor1 = store.compareAndSwap("order", null, new Anchor(1000, 10, 0));
+        Assert.assertNotNull(anchor1);
+        Assert.assertNull(store.compareAndSwap("order", null, new Anchor(1000, 20, 0)));
+        Anchor anchor2 = store.compareAndSwap("order", anchor1, new Anchor(1000, 20, 0));
+        Assert.assertEquals(20, anchor2.getId());
+        Assert.assertEquals(anchor2, store.read("order"));
+        Assert.assertNull(store.compareAndSwap("order", anchor1, new Anchor(1000, 30, 0)));
+
+        // 新存储器读取到已保存的锚点
+        Anchor anchor = createStore().read("order");
+        Assert.assertEquals(1000, anchor.getPeriodTime());
+        Assert.assertEquals(20, anchor.getId());
+    }
+
+    @Test
+    public void testSharedSequence() {
+        AnchorStore store = createStore();
+        IdGenerator idGenerator1 = new IdGenerator(PeriodType.DAY, 10, null, store, "order");
+        IdGenerator idGenerator2 = new IdGenerator(PeriodType.DAY, 10, null, store, "order");
+
+        Set<Id> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(ids.add(idGenerator1.acquire()));
+            Assert.assertTrue(ids.add(idGenerator2.acquire()));
+        }
+    }
+
+    /**
+     * 创建被测试的锚点存储器（每次创建的存储器都读写同一份存储）
+     */
+    protected abstract AnchorStore createStore();
+}
@@ -0,0 +1,50 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 11:50 创建
+ */
+package org.antframework.common.util.id.store;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 抽象本地锚点存储器单元测试（组提交的实现需满足锚点存储器的约定）
+ */
+public class AbstractLocalAnchorStoreTest extends AbstractAnchorStoreTest {
+    // 模拟的持久化存储
+    private final Map<String, Anchor> storage = new HashMap<>();
+
+    @Override
+    protected AnchorStore createStore() {
+        return new MemoryAnchorStore(storage);
+    }
+
+    // 基于内存的锚点存储器
+    private static class MemoryAnchorStore extends AbstractLocalAnchorStore {
+        // 持久化存储
+        private final Map<String, Anchor> storage;
+
+        MemoryAnchorStore(Map<String, Anchor> storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        protected Map<String, Anchor> loadAll() {
+            synchronized (storage) {
+                return new HashMap<>(storage);
+            }
+        }
+
+        @Override
+        protected void storeAll(Map<String, Anchor> anchors) {
+            synchronized (storage) {
+                storage.clear();
+                storage.putAll(anchors);
+            }
+        }
+    }
+}
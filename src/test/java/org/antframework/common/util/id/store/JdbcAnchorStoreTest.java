@@ -0,0 +1,48 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 18:55 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 基于数据库的锚点存储器单元测试（使用内嵌的h2数据库）
+ */
+public class JdbcAnchorStoreTest extends AbstractAnchorStoreTest {
+    private JdbcDataSource dataSource;
+
+    @Before
+    public void init() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idAnchor;DB_CLOSE_DELAY=-1");
+        execute("CREATE TABLE id_anchor (name VARCHAR(128) NOT NULL PRIMARY KEY, period_time BIGINT NOT NULL, max_id BIGINT NOT NULL)");
+    }
+
+    @After
+    public void destroy() throws SQLException {
+        execute("DROP TABLE id_anchor");
+    }
+
+    @Override
+    protected AnchorStore createStore() {
+        return new JdbcAnchorStore(dataSource, "id_anchor");
+    }
+
+    // 执行sql
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 17:40 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.file.MapFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 基于map文件的锚点存储器单元测试
+ */
+public class MapFileAnchorStoreTest extends AbstractAnchorStoreTest {
+    private File file;
+
+    @Before
+    public void init() throws IOException {
+        file = File.createTempFile("anchor", ".properties");
+    }
+
+    @After
+    public void destroy() {
+        file.delete();
+    }
+
+    @Test
+    public void testFileFormat() {
+        MapFileAnchorStore store = new MapFileAnchorStore(file.getPath());
+        store.compareAndSwap("order", null, new Anchor(1000, 20, 0));
+        Assert.assertEquals("20", new MapFile(file.getPath()).read("order.id"));
+    }
+
+    @Override
+    protected AnchorStore createStore() {
+        return new MapFileAnchorStore(file.getPath());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 19:50 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.id.Id;
+import org.antframework.common.util.id.PeriodType;
+import org.antframework.common.util.id.local.IdGenerator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * 基于内存映射文件的锚点存储器单元测试
+ */
+public class MappedFileAnchorStoreTest extends AbstractAnchorStoreTest {
+    private File file;
+
+    @Before
+    public void init() throws IOException {
+        file = File.createTempFile("anchor", ".dat");
+    }
+
+    @After
+    public void destroy() {
+        file.delete();
+    }
+
+    @Test
+    public void testMultipleSequences() {
+        MappedFileAnchorStore store = new MappedFileAnchorStore(file.getPath());
+        store.compareAndSwap("order", null, new Anchor(1000, 20, 0));
+        store.compareAndSwap("user", null, new Anchor(2000, 5, 0));
+
+        // 新存储器从文件中读取所有序列
+        MappedFileAnchorStore newStore = new MappedFileAnchorStore(file.getPath());
+        Assert.assertEquals(new Anchor(1000, 20, 0), newStore.read("order"));
+        Assert.assertEquals(new Anchor(2000, 5, 0), newStore.read("user"));
+    }
+
+    @Test
+    public void testTornWrite() throws IOException {
+        MappedFileAnchorStore store = new MappedFileAnchorStore(file.getPath(), 128);
+        Anchor anchor = store.compareAndSwap("order", null, new Anchor(1000, 10, 0));
+        store.compareAndSwap("order", anchor, new Anchor(1000, 20, 0));
+        // 最后一次写入的是第0个槽，模拟写入中断导致槽损坏
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(30);
+            raf.write(0xFF);
+        }
+        // 回退到上一次成功保存的锚点
+        Assert.assertEquals(new Anchor(1000, 10, 0), new MappedFileAnchorStore(file.getPath(), 128).read("order"));
+    }
+
+    @Test
+    public void testRestart() {
+        Id last = null;
+        for (int i = 0; i < 3; i++) {
+            IdGenerator idGenerator = new IdGenerator(PeriodType.NONE, 10, null, new MappedFileAnchorStore(file.getPath()), "order");
+            for (int j = 0; j < 25; j++) {
+                Id id = idGenerator.acquire();
+                if (last != null) {
+                    Assert.assertTrue(id.getId() > last.getId());
+                }
+                last = id;
+            }
+        }
+    }
+
+    @Override
+    protected AnchorStore createStore() {
+        return new MappedFileAnchorStore(file.getPath());
+    }
+}
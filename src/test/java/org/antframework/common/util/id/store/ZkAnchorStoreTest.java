@@ -0,0 +1,41 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-17 17:55 创建
+ */
+package org.antframework.common.util.id.store;
+
+import org.antframework.common.util.zookeeper.ZkTemplate;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Before;
+
+import java.io.IOException;
+
+/**
+ * 基于zookeeper的锚点存储器单元测试（使用内嵌的zookeeper服务端）
+ */
+public class ZkAnchorStoreTest extends AbstractAnchorStoreTest {
+    private TestingServer server;
+    private ZkTemplate zkTemplate;
+
+    @Before
+    public void init() throws Exception {
+        server = new TestingServer();
+        zkTemplate = ZkTemplate.create(new String[]{server.getConnectString()}, "ant-common-util/test");
+    }
+
+    @After
+    public void close() throws IOException {
+        zkTemplate.close();
+        server.close();
+    }
+
+    @Override
+    protected AnchorStore createStore() {
+        return new ZkAnchorStore(zkTemplate, "/idAnchor");
+    }
+}
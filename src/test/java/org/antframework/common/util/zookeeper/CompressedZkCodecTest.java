@@ -0,0 +1,91 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 14:50 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * 压缩的编解码器单元测试
+ */
+public class CompressedZkCodecTest {
+
+    @Test
+    public void testCompress() {
+        CompressedZkCodec<String> codec = new CompressedZkCodec<>(ZkCodec.UTF8);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append("{\"key\":\"value").append(i % 100).append("\"},");
+        }
+        String json = builder.toString();
+        byte[] data = codec.encode(json);
+        Assert.assertEquals((byte) 0xFE, data[0]);
+        Assert.assertEquals(1, data[4]);
+        Assert.assertTrue(data.length < json.length() / 10);
+        Assert.assertEquals(json, codec.decode(data));
+    }
+
+    @Test
+    public void testRaw() {
+        CompressedZkCodec<String> codec = new CompressedZkCodec<>(ZkCodec.UTF8);
+        // 小于压缩阈值时直接写入原始数据
+        byte[] data = codec.encode("hello");
+        Assert.assertArrayEquals("hello".getBytes(Charset.forName("utf-8")), data);
+        Assert.assertEquals("hello", codec.decode(data));
+        // 压缩后没有变小
+        byte[] random = new byte[4096];
+        new Random(1).nextBytes(random);
+        CompressedZkCodec<byte[]> bytesCodec = new CompressedZkCodec<>(ZkCodec.of(value -> value, value -> value), 0);
+        data = bytesCodec.encode(random);
+        Assert.assertArrayEquals(random, data);
+        Assert.assertArrayEquals(random, bytesCodec.decode(data));
+        // 原始数据恰好以魔数开头
+        byte[] magicPrefixed = {(byte) 0xFE, 'Z', 'K', 'C', 1, 2, 3};
+        data = bytesCodec.encode(magicPrefixed);
+        Assert.assertEquals(magicPrefixed.length + 5, data.length);
+        Assert.assertArrayEquals(magicPrefixed, bytesCodec.decode(data));
+
+        Assert.assertNull(codec.encode(null));
+        Assert.assertNull(codec.decode(null));
+    }
+
+    @Test
+    public void testLegacy() {
+        // 未使用本编解码器写入的数据（包括以单字节的0、1开头的数据）按原始数据解码
+        CompressedZkCodec<byte[]> bytesCodec = new CompressedZkCodec<>(ZkCodec.of(value -> value, value -> value));
+        byte[] legacy = {1, 0, 0, 0, 5, 'h', 'e', 'l', 'l', 'o'};
+        Assert.assertArrayEquals(legacy, bytesCodec.decode(legacy));
+        legacy = new byte[]{0, 'h', 'i'};
+        Assert.assertArrayEquals(legacy, bytesCodec.decode(legacy));
+        Assert.assertEquals("{\"key\":1}", new CompressedZkCodec<>(ZkCodec.UTF8).decode("{\"key\":1}".getBytes(Charset.forName("utf-8"))));
+        Assert.assertEquals("", new CompressedZkCodec<>(ZkCodec.UTF8).decode(new byte[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        new CompressedZkCodec<>(ZkCodec.UTF8).decode(new byte[]{(byte) 0xFE, 'Z', 'K', 'C', 9, 1, 2});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCorrupted() {
+        CompressedZkCodec<String> codec = new CompressedZkCodec<>(ZkCodec.UTF8, 0);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("abc");
+        }
+        byte[] data = codec.encode(builder.toString());
+        Assert.assertEquals(1, data[4]);
+        byte[] truncated = new byte[data.length - 2];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        codec.decode(truncated);
+    }
+}
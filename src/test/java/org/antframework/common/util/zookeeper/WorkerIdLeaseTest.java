@@ -0,0 +1,149 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 00:20 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import org.apache.curator.test.KillSession;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.data.Stat;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 租约方式的workerId单元测试（使用内嵌的zookeeper服务端）
+ */
+public class WorkerIdLeaseTest {
+    private TestingServer server;
+    private ZkTemplate zkTemplate;
+    private File cacheFile;
+
+    @Before
+    public void init() throws Exception {
+        server = new TestingServer();
+        zkTemplate = ZkTemplate.create(new String[]{server.getConnectString()}, "ant-common-util/test");
+        cacheFile = File.createTempFile("workerIdLease", ".properties");
+    }
+
+    @After
+    public void close() throws IOException {
+        zkTemplate.close();
+        server.close();
+        cacheFile.delete();
+    }
+
+    @Test
+    public void testLease() {
+        WorkerIdLease lease1 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker1", 2, null);
+        WorkerIdLease lease2 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker2", 2, null);
+        Assert.assertTrue(lease1.isLeased());
+        Assert.assertTrue(lease2.isLeased());
+        Assert.assertNotEquals(lease1.getId(), lease2.getId());
+        // 池已用完
+        try {
+            new WorkerIdLease(zkTemplate, "/workerIdLease", "worker3", 2, null);
+            Assert.fail("workerId池已用完时应抛出异常");
+        } catch (IllegalStateException e) {
+            // 预期异常
+        }
+        // 释放后可被复用
+        lease1.release();
+        Assert.assertFalse(lease1.isLeased());
+        WorkerIdLease lease3 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker3", 2, null);
+        Assert.assertEquals(lease1.getId(), lease3.getId());
+        lease2.release();
+        lease3.release();
+    }
+
+    @Test
+    public void testCache() {
+        WorkerIdLease lease1 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker1", 1024, cacheFile.getPath());
+        WorkerIdLease lease2 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker2", 1024, cacheFile.getPath());
+        lease1.release();
+        lease2.release();
+        // 重启后优先使用上次的workerId
+        WorkerIdLease newLease2 = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker2", 1024, cacheFile.getPath());
+        Assert.assertEquals(lease2.getId(), newLease2.getId());
+        newLease2.release();
+    }
+
+    @Test
+    public void testTakeover() throws Exception {
+        // 上次的实例还未下线（会话未过期）时重启，新实例接管原workerId
+        ZkTemplate oldTemplate = ZkTemplate.create(new String[]{server.getConnectString()}, "ant-common-util/test");
+        try {
+            WorkerIdLease oldLease = new WorkerIdLease(oldTemplate, "/workerIdLease", "worker1", 2, cacheFile.getPath());
+            WorkerIdLease newLease = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker1", 2, cacheFile.getPath());
+            Assert.assertTrue(newLease.isLeased());
+            Assert.assertEquals(oldLease.getId(), newLease.getId());
+            Assert.assertEquals(sessionId(zkTemplate), ephemeralOwner(newLease.getId()));
+            // 上次的实例释放租约时不会删除已被接管的节点
+            oldLease.release();
+            Assert.assertEquals(sessionId(zkTemplate), ephemeralOwner(newLease.getId()));
+            newLease.release();
+        } finally {
+            oldTemplate.close();
+        }
+    }
+
+    @Test
+    public void testSessionClosed() throws Exception {
+        // 实例崩溃（未释放租约）后会话关闭，临时节点被删除，workerId可被其他worker复用
+        ZkTemplate crashedTemplate = ZkTemplate.create(new String[]{server.getConnectString()}, "ant-common-util/test");
+        WorkerIdLease crashedLease = new WorkerIdLease(crashedTemplate, "/workerIdLease", "worker1", 1, null);
+        Assert.assertTrue(crashedLease.isLeased());
+        crashedTemplate.close();
+        WorkerIdLease lease = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker2", 1, null);
+        Assert.assertEquals(crashedLease.getId(), lease.getId());
+        lease.release();
+    }
+
+    @Test
+    public void testSessionExpired() throws Exception {
+        WorkerIdLease lease = new WorkerIdLease(zkTemplate, "/workerIdLease", "worker1", 2, null);
+        long oldSessionId = sessionId(zkTemplate);
+        Assert.assertEquals(oldSessionId, ephemeralOwner(lease.getId()));
+        // 会话过期后临时节点被删除，重连后重新占用原workerId
+        KillSession.kill(zkTemplate.getZkClient().getZookeeperClient().getZooKeeper(), server.getConnectString());
+        waitUntil(() -> {
+            try {
+                long owner = ephemeralOwner(lease.getId());
+                return lease.isLeased() && owner != oldSessionId && owner == sessionId(zkTemplate);
+            } catch (Exception e) {
+                return false;
+            }
+        });
+        lease.release();
+        Assert.assertFalse(zkTemplate.checkExists("/workerIdLease/" + lease.getId()));
+    }
+
+    // 获取zookeeper会话id
+    private static long sessionId(ZkTemplate template) throws Exception {
+        return template.getZkClient().getZookeeperClient().getZooKeeper().getSessionId();
+    }
+
+    // 获取workerId节点的临时节点所有者（节点不存在时返回0）
+    private long ephemeralOwner(int workerId) {
+        Stat stat = zkTemplate.execute(zkClient -> zkClient.checkExists().forPath("/workerIdLease/" + workerId));
+        return stat == null ? 0 : stat.getEphemeralOwner();
+    }
+
+    // 等待直到条件满足（最多等待30秒）
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("等待超时", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * 作者：钟勋 (e-mail:zhongxunking@163.com)
+ */
+
+/*
+ * 修订记录:
+ * @author 钟勋 2026-10-18 14:10 创建
+ */
+package org.antframework.common.util.zookeeper;
+
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.NodeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * ZkTemplate单元测试（使用内嵌的zookeeper服务端）
+ */
+public class ZkTemplateServerTest {
+    private TestingServer server;
+    private ZkTemplate zkTemplate;
+
+    @Before
+    public void init() throws Exception {
+        server = new TestingServer();
+        zkTemplate = ZkTemplate.create(new String[]{server.getConnectString()}, "ant-common-util/test");
+    }
+
+    @After
+    public void close() throws IOException {
+        zkTemplate.close();
+        server.close();
+    }
+
+    @Test
+    public void testCreateNodes() {
+        zkTemplate.createNode("/dev/batch/aa", CreateMode.PERSISTENT);
+        zkTemplate.createNodes(CreateMode.PERSISTENT, "/dev/batch/aa/a1", "/dev/batch/bb/b1", "/dev/batch/bb/b2", "/dev/batch/cc");
+        Assert.assertTrue(zkTemplate.checkExists("/dev/batch/aa/a1"));
+        Assert.assertTrue(zkTemplate.checkExists("/dev/batch/bb/b2"));
+        Assert.assertTrue(zkTemplate.checkExists("/dev/batch/cc"));
+        // 所有节点已存在
+        zkTemplate.createNodes(CreateMode.PERSISTENT, "/dev/batch/aa/a1", "/dev/batch/cc");
+        // 临时节点不能作为父节点
+        try {
+            zkTemplate.createNodes(CreateMode.EPHEMERAL, "/dev/batch/dd", "/dev/batch/dd/d1");
+            Assert.fail("临时节点作为父节点时应抛出异常");
+        } catch (IllegalArgumentException e) {
+            Assert.assertFalse(zkTemplate.checkExists("/dev/batch/dd"));
+        }
+        zkTemplate.deleteNode("/dev/batch");
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        zkTemplate.createNodes(CreateMode.PERSISTENT, "/dev/async/aa", "/dev/async/bb");
+        zkTemplate.setDataAsync("/dev/async/aa", "hello".getBytes(Charset.forName("utf-8"))).get();
+        Assert.assertEquals("hello", new String(zkTemplate.getDataAsync("/dev/async/aa").get(), Charset.forName("utf-8")));
+        Assert.assertTrue(zkTemplate.checkExistsAsync("/dev/async/bb").get());
+        Assert.assertEquals(2, zkTemplate.getChildrenAsync("/dev/async").get().size());
+        Assert.assertNull(zkTemplate.getChildrenAsync("/dev/async/cc").get());
+        try {
+            zkTemplate.getDataAsync("/dev/async/cc").get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KeeperException.NoNodeException);
+        }
+        zkTemplate.deleteNodeAsync("/dev/async").get();
+        Assert.assertFalse(zkTemplate.checkExistsAsync("/dev/async").get());
+    }
+
+    @Test
+    public void testDeleteTree() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                paths.add("/dev/tree/n" + i + "/n" + j + "/leaf");
+            }
+        }
+        zkTemplate.createNodes(CreateMode.PERSISTENT, paths.toArray(new String[0]));
+        zkTemplate.deleteNode("/dev/tree");
+        Assert.assertFalse(zkTemplate.checkExists("/dev/tree"));
+        // 节点不存在
+        zkTemplate.deleteNode("/dev/tree");
+
+        // 在zookeeper事件线程中（比如在后台操作的回调中）删除不会死锁
+        zkTemplate.createNodes(CreateMode.PERSISTENT, "/dev/tree/a/b", "/dev/tree/c");
+        CountDownLatch deleted = new CountDownLatch(1);
+        zkTemplate.getZkClient().checkExists().inBackground((client, event) -> {
+            zkTemplate.deleteNode("/dev/tree");
+            deleted.countDown();
+        }).forPath("/dev/tree");
+        Assert.assertTrue(deleted.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(zkTemplate.checkExists("/dev/tree"));
+    }
+
+    @Test
+    public void testConnectionMetrics() throws Exception {
+        zkTemplate.checkExists("/dev");
+        ZkConnectionMetrics metrics = zkTemplate.getConnectionMetrics();
+        Assert.assertTrue(metrics.isConnected());
+        Assert.assertEquals(0, metrics.getRejectedAmount());
+        // 已链接时不再等待
+        zkTemplate.checkExists("/dev");
+        Assert.assertEquals(metrics.getWaitedAmount(), zkTemplate.getConnectionMetrics().getWaitedAmount());
+
+        // 服务端不可用时快速失败
+        zkTemplate.setFailFast(true);
+        server.stop();
+        awaitConnected(false);
+        try {
+            zkTemplate.checkExists("/dev");
+            Assert.fail("未链接时应快速失败");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(1, zkTemplate.getConnectionMetrics().getRejectedAmount());
+        }
+        // 服务端恢复后重新可用
+        server.restart();
+        awaitConnected(true);
+        Assert.assertFalse(zkTemplate.checkExists("/dev"));
+    }
+
+    // 等待链接状态变为指定状态
+    private void awaitConnected(boolean connected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (zkTemplate.getConnectionMetrics().isConnected() != connected) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testShare() {
+        ZkTemplate zkTemplate1 = ZkTemplate.share(new String[]{server.getConnectString()}, "ant-common-util/test");
+        ZkTemplate zkTemplate2 = ZkTemplate.share(new String[]{server.getConnectString()}, "ant-common-util/test2");
+        Assert.assertSame(zkTemplate1.getZkClient().getZookeeperClient(), zkTemplate2.getZkClient().getZookeeperClient());
+        Assert.assertEquals(2, SharedZkClients.getRefCount(server.getConnectString()));
+        zkTemplate1.createNode("/dev/share", CreateMode.PERSISTENT);
+        Assert.assertFalse(zkTemplate2.checkExists("/dev/share"));
+
+        zkTemplate1.close();
+        // 重复关闭只释放一次引用
+        zkTemplate1.close();
+        Assert.assertEquals(1, SharedZkClients.getRefCount(server.getConnectString()));
+        Assert.assertTrue(zkTemplate.checkExists("/dev/share"));
+        zkTemplate2.close();
+        Assert.assertEquals(0, SharedZkClients.getRefCount(server.getConnectString()));
+        zkTemplate.deleteNode("/dev/share");
+    }
+
+    @Test
+    public void testListenTree() throws Exception {
+        zkTemplate.createNodes(CreateMode.PERSISTENT, "/dev/config/aa", "/dev/config/bb/b1");
+        zkTemplate.setData("/dev/config/aa", "v1".getBytes(Charset.forName("utf-8")));
+        CountDownLatch initialized = new CountDownLatch(1);
+        zkTemplate.listenTree("/dev/config", (client, event) -> {
+            if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+                initialized.countDown();
+            }
+        });
+        Assert.assertTrue(initialized.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("v1", new String(zkTemplate.getData("/dev/config/aa"), Charset.forName("utf-8")));
+        Assert.assertEquals(2, zkTemplate.getChildren("/dev/config").size());
+        Assert.assertEquals(1, zkTemplate.getChildren("/dev/config/bb").size());
+        // 未规范化的路径也从本地缓存读取
+        Assert.assertEquals("v1", new String(zkTemplate.getData("/dev/config/aa/"), Charset.forName("utf-8")));
+        Assert.assertEquals(1, zkTemplate.getChildren("/dev/config/bb/").size());
+
+        zkTemplate.setData("/dev/config/aa", "v2".getBytes(Charset.forName("utf-8")));
+        Assert.assertEquals("v2", new String(zkTemplate.getData("/dev/config/aa", ZkTemplate.ReadConsistency.SERVER), Charset.forName("utf-8")));
+        zkTemplate.unlistenTree("/dev/config");
+        zkTemplate.deleteNode("/dev/config");
+    }
+
+    @Test
+    public void testGetChildrenData() throws Exception {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            paths.add("/dev/registry/node" + i);
+        }
+        paths.add("/dev/registry/other");
+        zkTemplate.createNodes(CreateMode.PERSISTENT, paths.toArray(new String[0]));
+        zkTemplate.setData("/dev/registry/node1", "hello".getBytes(Charset.forName("utf-8")));
+
+        Map<String, ChildData> childrenData = zkTemplate.getChildrenData("/dev/registry", "^node[0-9]+$");
+        Assert.assertEquals(100, childrenData.size());
+        Assert.assertEquals("hello", new String(childrenData.get("node1").getData(), Charset.forName("utf-8")));
+        Assert.assertEquals(1, childrenData.get("node1").getStat().getVersion());
+        Assert.assertEquals(101, zkTemplate.getChildrenData("/dev/registry", null).size());
+        Assert.assertNull(zkTemplate.getChildrenData("/dev/registry/none", null));
+        // 在zookeeper事件线程中（比如在后台操作的回调中）获取不会死锁
+        AtomicInteger size = new AtomicInteger(-1);
+        CountDownLatch fetched = new CountDownLatch(1);
+        zkTemplate.getZkClient().checkExists().inBackground((client, event) -> {
+            size.set(zkTemplate.getChildrenData("/dev/registry", "^node[0-9]+$").size());
+            fetched.countDown();
+        }).forPath("/dev/registry");
+        Assert.assertTrue(fetched.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(100, size.get());
+        zkTemplate.deleteNode("/dev/registry");
+    }
+
+    @Test
+    public void testListenNode() throws Exception {
+        zkTemplate.createNode("/dev/shared", CreateMode.PERSISTENT);
+        zkTemplate.setData("/dev/shared", "v1".getBytes(Charset.forName("utf-8")));
+        AtomicInteger count1 = new AtomicInteger(0);
+        AtomicInteger count2 = new AtomicInteger(0);
+        NodeCache nodeCache1 = zkTemplate.listenNode("/dev/shared", true, (ZkTemplate.NodeListener) count1::incrementAndGet);
+        NodeCache nodeCache2 = zkTemplate.listenNode("/dev/shared", true, (ZkTemplate.NodeListener) count2::incrementAndGet);
+        Assert.assertEquals("v1", new String(zkTemplate.getData("/dev/shared"), Charset.forName("utf-8")));
+        Assert.assertEquals("v1", new String(nodeCache2.getCurrentData().getData(), Charset.forName("utf-8")));
+        // 初始化时异步调用监听器
+        waitUntil(() -> count1.get() == 1 && count2.get() == 1);
+
+        zkTemplate.setData("/dev/shared", "v2".getBytes(Charset.forName("utf-8")));
+        waitUntil(() -> count1.get() == 2 && count2.get() == 2);
+        Assert.assertEquals("v2", new String(nodeCache1.getCurrentData().getData(), Charset.forName("utf-8")));
+        // 通过视图的getListenable()添加的监听器
+        AtomicInteger count3 = new AtomicInteger(0);
+        nodeCache1.getListenable().addListener(count3::incrementAndGet);
+
+        // 关闭视图只删除本次添加的监听器（包括通过getListenable()添加的）
+        nodeCache1.close();
+        zkTemplate.setData("/dev/shared", "v3".getBytes(Charset.forName("utf-8")));
+        waitUntil(() -> count2.get() == 3);
+        Assert.assertEquals(2, count1.get());
+        Assert.assertEquals(0, count3.get());
+        Assert.assertEquals("v3", new String(zkTemplate.getData("/dev/shared"), Charset.forName("utf-8")));
+
+        nodeCache2.close();
+        zkTemplate.deleteNode("/dev/shared");
+    }
+
+    @Test
+    public void testListenNodeConcurrently() throws Exception {
+        zkTemplate.createNode("/dev/concurrent", CreateMode.PERSISTENT);
+        zkTemplate.setData("/dev/concurrent", "v1".getBytes(Charset.forName("utf-8")));
+        // 多个线程同时监听同一个节点，只有一个线程创建并启动共享的NodeCache，其他线程等待其启动完成
+        int threadAmount = 8;
+        List<NodeCache> nodeCaches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(threadAmount);
+        for (int i = 0; i < threadAmount; i++) {
+            new Thread(() -> {
+                try {
+                    nodeCaches.add(zkTemplate.listenNode("/dev/concurrent", false, (ZkTemplate.NodeListener) () -> {
+                    }));
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(threadAmount, nodeCaches.size());
+        for (NodeCache nodeCache : nodeCaches) {
+            Assert.assertEquals("v1", new String(nodeCache.getCurrentData().getData(), Charset.forName("utf-8")));
+        }
+        for (NodeCache nodeCache : nodeCaches) {
+            nodeCache.close();
+        }
+        zkTemplate.deleteNode("/dev/concurrent");
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testCodec() {
+        CompressedZkCodec<String> codec = new CompressedZkCodec<>(ZkCodec.UTF8);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append("{\"key\":\"value").append(i).append("\"},");
+        }
+        zkTemplate.createNode("/dev/codec", CreateMode.PERSISTENT);
+        zkTemplate.setData("/dev/codec", builder.toString(), codec);
+        String value = zkTemplate.getData("/dev/codec", codec);
+        Assert.assertEquals(builder.toString(), value);
+        // 节点未被修改时直接返回缓存的值
+        Assert.assertSame(value, zkTemplate.getData("/dev/codec", codec));
+        zkTemplate.setData("/dev/codec", "changed", codec);
+        Assert.assertEquals("changed", zkTemplate.getData("/dev/codec", codec));
+        // 未使用压缩的编解码器写入的旧数据也能读取
+        zkTemplate.setData("/dev/codec", "legacy".getBytes(Charset.forName("utf-8")));
+        Assert.assertEquals("legacy", zkTemplate.getData("/dev/codec", codec));
+        zkTemplate.deleteNode("/dev/codec");
+    }
+}